@@ -1,5 +1,10 @@
 package com.guichaguri.fastbean;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Represents a bean conversion utility
  * @author Guichaguri
@@ -26,4 +31,196 @@ public interface Bean<T> {
      */
     void extract(T instance, IPropertySetter setter);
 
+    /**
+     * Creates a shallow copy of the POJO instance
+     * @param instance The instance
+     * @return The copy
+     */
+    default T copy(T instance) {
+        if (instance == null) return null;
+
+        T copy = create();
+        copyInto(instance, copy);
+        return copy;
+    }
+
+    /**
+     * Copies the properties from one POJO instance to another, sharing the same property values
+     * @param source The instance to copy from
+     * @param target The instance to copy to
+     */
+    void copyInto(T source, T target);
+
+    /**
+     * Creates a deep copy of the POJO instance.
+     *
+     * Nested POJOs, arrays, collections and maps are also copied.
+     * Nested POJOs are copied using beans compiled without a name resolver.
+     *
+     * @param instance The instance
+     * @return The copy
+     */
+    T deepCopy(T instance);
+
+    /**
+     * Deep copies the properties from one POJO instance to another
+     * @param source The instance to copy from
+     * @param target The instance to copy to
+     * @param copies The instances already copied or {@code null} if the properties can't contain cycles
+     */
+    void deepCopyInto(T source, T target, Map<Object, Object> copies);
+
+    /**
+     * Stores the properties of the instances as columns, one array per property.
+     *
+     * Primitive properties are stored in primitive arrays without boxing,
+     * String properties are dictionary encoded and other properties are stored in object arrays.
+     *
+     * @param instances The instances
+     * @return The columns
+     */
+    BeanColumns toColumns(List<T> instances);
+
+    /**
+     * Creates an instance for each row of the columns.
+     * Only the properties that can be both read and written are filled, their columns must be present.
+     * @param columns The columns
+     * @return The instances
+     */
+    List<T> fromColumns(BeanColumns columns);
+
+    /**
+     * Gets the index of a public volatile int, long or object field of a public class that can be updated atomically.
+     * The index should be retrieved once and reused for the atomic operations.
+     * @param property The property name
+     * @return The index or {@code -1} if the property can't be updated atomically
+     */
+    int getAtomicIndex(String property);
+
+    /**
+     * Atomically sets an int property if it has the expected value
+     * @param instance The instance
+     * @param index The atomic index
+     * @param expect The expected value
+     * @param update The new value
+     * @return Whether the value was updated
+     */
+    boolean compareAndSetInt(T instance, int index, int expect, int update);
+
+    /**
+     * Atomically sets a long property if it has the expected value
+     * @param instance The instance
+     * @param index The atomic index
+     * @param expect The expected value
+     * @param update The new value
+     * @return Whether the value was updated
+     */
+    boolean compareAndSetLong(T instance, int index, long expect, long update);
+
+    /**
+     * Atomically sets an object property if it is the expected reference
+     * @param instance The instance
+     * @param index The atomic index
+     * @param expect The expected reference
+     * @param update The new value
+     * @return Whether the value was updated
+     */
+    boolean compareAndSetObject(T instance, int index, Object expect, Object update);
+
+    /**
+     * Atomically adds to an int property
+     * @param instance The instance
+     * @param index The atomic index
+     * @param delta The value to add
+     * @return The previous value
+     */
+    int getAndAddInt(T instance, int index, int delta);
+
+    /**
+     * Atomically adds to a long property
+     * @param instance The instance
+     * @param index The atomic index
+     * @param delta The value to add
+     * @return The previous value
+     */
+    long getAndAddLong(T instance, int index, long delta);
+
+    /**
+     * Eventually sets an int property, without waiting for other threads to see it
+     * @param instance The instance
+     * @param index The atomic index
+     * @param value The new value
+     */
+    void lazySetInt(T instance, int index, int value);
+
+    /**
+     * Eventually sets a long property, without waiting for other threads to see it
+     * @param instance The instance
+     * @param index The atomic index
+     * @param value The new value
+     */
+    void lazySetLong(T instance, int index, long value);
+
+    /**
+     * Eventually sets an object property, without waiting for other threads to see it
+     * @param instance The instance
+     * @param index The atomic index
+     * @param value The new value
+     */
+    void lazySetObject(T instance, int index, Object value);
+
+    /**
+     * Appends the property names and values of the POJO instance to the builder, e.g. {@code User{name=John, age=20}}.
+     *
+     * Primitive values are appended without boxing. Properties can be masked or hidden through {@link Format}.
+     *
+     * @param instance The instance
+     * @param builder The text receiver
+     */
+    void appendTo(T instance, StringBuilder builder);
+
+    /**
+     * Appends the property names and values of the POJO instance.
+     * See {@link #appendTo(Object, StringBuilder)}
+     * @param instance The instance
+     * @param appendable The text receiver
+     * @throws IOException When the text could not be appended
+     */
+    default void appendTo(T instance, Appendable appendable) throws IOException {
+        if (appendable instanceof StringBuilder) {
+            appendTo(instance, (StringBuilder) appendable);
+            return;
+        }
+
+        // Formats into a builder reused by this thread
+        StringBuilder builder = FormatBuffer.acquire();
+
+        try {
+            appendTo(instance, builder);
+            appendable.append(builder);
+        } finally {
+            FormatBuffer.release(builder);
+        }
+    }
+
+    /**
+     * Formats the property names and values of the POJO instance.
+     * See {@link #appendTo(Object, StringBuilder)}
+     * @param instance The instance
+     * @return The formatted text
+     */
+    default String format(T instance) {
+        StringBuilder builder = new StringBuilder();
+        appendTo(instance, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Gets the interners used to deduplicate String properties when filling
+     * @return The interners mapped by property name
+     */
+    default Map<String, StringInterner> getInterners() {
+        return Collections.emptyMap();
+    }
+
 }
@@ -0,0 +1,30 @@
+package com.guichaguri.fastbean;
+
+import java.lang.reflect.Member;
+
+/**
+ * Receives the properties found in a class
+ *
+ * @author Guichaguri
+ */
+interface BeanBuilder {
+
+    /**
+     * Adds a property that will be filled with data from a {@link IPropertyGetter}
+     * @param type The property type
+     * @param name The property name
+     * @param member The field or setter method
+     * @param internCapacity The amount of distinct strings that will be deduplicated or {@code 0} to disable it
+     */
+    void addGetter(Class<?> type, String name, Member member, int internCapacity);
+
+    /**
+     * Adds a property that will be extracted into a {@link IPropertySetter}
+     * @param type The property type
+     * @param name The property name
+     * @param member The field or getter method
+     * @param format How the property is shown when formatted
+     */
+    void addSetter(Class<?> type, String name, Member member, FormatMode format);
+
+}
@@ -0,0 +1,277 @@
+package com.guichaguri.fastbean;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the properties of many POJO instances as columns (struct of arrays).
+ *
+ * Primitive properties are stored in primitive arrays, String properties are dictionary encoded
+ * and any other property is stored in an array of its type.
+ *
+ * @author Guichaguri
+ * @see Bean#toColumns(List)
+ */
+public class BeanColumns {
+
+    private final int size;
+    private final Map<String, Object> columns = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty holder
+     * @param size The amount of rows
+     */
+    public BeanColumns(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the amount of rows
+     * @return The amount of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the column names
+     * @return The column names
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * Creates and adds an array column
+     * @param name The column name
+     * @param type The array component type
+     * @return The array
+     */
+    public Object createColumn(String name, Class<?> type) {
+        return putColumn(name, Array.newInstance(type, size));
+    }
+
+    /**
+     * Creates and adds a dictionary encoded String column
+     * @param name The column name
+     * @return The column
+     */
+    public StringColumn createStringColumn(String name) {
+        return (StringColumn) putColumn(name, new StringColumn(size));
+    }
+
+    /**
+     * Adds an existing column
+     * @param name The column name
+     * @param column An array or a {@link StringColumn} with the same size as this holder
+     * @return The column
+     */
+    public Object putColumn(String name, Object column) {
+        int length = column instanceof StringColumn ? ((StringColumn) column).codes.length : Array.getLength(column);
+
+        if (length != size) {
+            throw new IllegalArgumentException("The column " + name + " has " + length + " rows instead of " + size);
+        }
+
+        columns.put(name, column);
+        return column;
+    }
+
+    /**
+     * Gets a column
+     * @param name The column name
+     * @return An array or a {@link StringColumn}
+     */
+    public Object getColumn(String name) {
+        Object column = columns.get(name);
+        if (column == null) throw new IllegalArgumentException("Missing column: " + name);
+        return column;
+    }
+
+    /**
+     * Gets an int column
+     * @param name The column name
+     * @return The array
+     */
+    public int[] getInts(String name) {
+        return (int[]) getColumn(name);
+    }
+
+    /**
+     * Gets a long column
+     * @param name The column name
+     * @return The array
+     */
+    public long[] getLongs(String name) {
+        return (long[]) getColumn(name);
+    }
+
+    /**
+     * Gets a short column
+     * @param name The column name
+     * @return The array
+     */
+    public short[] getShorts(String name) {
+        return (short[]) getColumn(name);
+    }
+
+    /**
+     * Gets a byte column
+     * @param name The column name
+     * @return The array
+     */
+    public byte[] getBytes(String name) {
+        return (byte[]) getColumn(name);
+    }
+
+    /**
+     * Gets a double column
+     * @param name The column name
+     * @return The array
+     */
+    public double[] getDoubles(String name) {
+        return (double[]) getColumn(name);
+    }
+
+    /**
+     * Gets a float column
+     * @param name The column name
+     * @return The array
+     */
+    public float[] getFloats(String name) {
+        return (float[]) getColumn(name);
+    }
+
+    /**
+     * Gets a boolean column
+     * @param name The column name
+     * @return The array
+     */
+    public boolean[] getBooleans(String name) {
+        return (boolean[]) getColumn(name);
+    }
+
+    /**
+     * Gets a char column
+     * @param name The column name
+     * @return The array
+     */
+    public char[] getChars(String name) {
+        return (char[]) getColumn(name);
+    }
+
+    /**
+     * Gets an object column
+     * @param name The column name
+     * @return The array
+     */
+    public Object[] getObjects(String name) {
+        return (Object[]) getColumn(name);
+    }
+
+    /**
+     * Gets a dictionary encoded String column
+     * @param name The column name
+     * @return The column
+     */
+    public StringColumn getStringColumn(String name) {
+        return (StringColumn) getColumn(name);
+    }
+
+    /**
+     * Decodes a String column
+     * @param name The column name
+     * @return The values
+     */
+    public String[] getStrings(String name) {
+        StringColumn column = getStringColumn(name);
+        String[] strings = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            strings[i] = column.get(i);
+        }
+
+        return strings;
+    }
+
+    /**
+     * A dictionary encoded String column.
+     *
+     * Each distinct value gets a code, which is its index in the dictionary. {@code null} is encoded as {@code -1}.
+     */
+    public static class StringColumn {
+
+        private final int[] codes;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        /**
+         * Creates a column
+         * @param size The amount of rows
+         */
+        public StringColumn(int size) {
+            this.codes = new int[size];
+        }
+
+        /**
+         * Gets the code of every row
+         * @return The codes
+         */
+        public int[] getCodes() {
+            return codes;
+        }
+
+        /**
+         * Gets the distinct values, indexed by code
+         * @return The dictionary
+         */
+        public List<String> getDictionary() {
+            return Collections.unmodifiableList(dictionary);
+        }
+
+        /**
+         * Gets the value of a row
+         * @param row The row index
+         * @return The value
+         */
+        public String get(int row) {
+            return decode(codes[row]);
+        }
+
+        /**
+         * Gets the code of a value, adding it to the dictionary if it's not there yet
+         * @param value The value
+         * @return The code
+         */
+        public int encode(String value) {
+            if (value == null) return -1;
+
+            Integer code = indexes.get(value);
+
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                indexes.put(value, code);
+            }
+
+            return code;
+        }
+
+        /**
+         * Gets the value of a code
+         * @param code The code
+         * @return The value
+         */
+        public String decode(int code) {
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+    }
+
+}
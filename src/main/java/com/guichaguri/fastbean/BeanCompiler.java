@@ -4,6 +4,18 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
@@ -14,12 +26,26 @@ import static org.objectweb.asm.Opcodes.*;
 /**
  * @author Guichaguri
  */
-public class BeanCompiler {
+public class BeanCompiler implements BeanBuilder {
 
     private static final Type OBJECT = Type.getType(Object.class);
     private static final Type BEAN = Type.getType(Bean.class);
     private static final Type GETTER = Type.getType(IPropertyGetter.class);
     private static final Type SETTER = Type.getType(IPropertySetter.class);
+    private static final Type MAP = Type.getType(Map.class);
+    private static final Type IDENTITY_MAP = Type.getType(IdentityHashMap.class);
+    private static final Type COPIER = Type.getType(DeepCopier.class);
+    private static final Type INTERNER = Type.getType(StringInterner.class);
+    private static final Type LINKED_MAP = Type.getType(LinkedHashMap.class);
+    private static final Type INT_UPDATER = Type.getType(AtomicIntegerFieldUpdater.class);
+    private static final Type LONG_UPDATER = Type.getType(AtomicLongFieldUpdater.class);
+    private static final Type REFERENCE_UPDATER = Type.getType(AtomicReferenceFieldUpdater.class);
+    private static final Type COLUMNS = Type.getType(BeanColumns.class);
+    private static final Type STRING_COLUMN = Type.getType(BeanColumns.StringColumn.class);
+    private static final Type LIST = Type.getType(List.class);
+    private static final Type ITERATOR = Type.getType(Iterator.class);
+    private static final Type ARRAY_LIST = Type.getType(ArrayList.class);
+    private static final Type STRING_BUILDER = Type.getType(StringBuilder.class);
 
     private ClassWriter cw;
 
@@ -31,13 +57,39 @@ public class BeanCompiler {
 
     private Type type;
     private Type objectType;
+    private Class<?> objectClass;
+
+    // Properties that can be written to and read from, used for copying
+    private final Map<String, Property> writers = new LinkedHashMap<>();
+    private final Map<String, Property> readers = new LinkedHashMap<>();
+
+    // Interner fields by property name and their capacities
+    private final Map<String, String> internerFields = new LinkedHashMap<>();
+    private final Map<String, Integer> internerCapacities = new LinkedHashMap<>();
+
+    // How each readable property is formatted
+    private final Map<String, FormatMode> formats = new LinkedHashMap<>();
+
+    // Volatile fields that can be updated atomically, their position is their index
+    private final List<Atomic> atomics = new ArrayList<>();
 
     public BeanCompiler(Class<?> object, String className) {
-        cw = new ClassWriter(0);
+        cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                try {
+                    return super.getCommonSuperClass(type1, type2);
+                } catch(RuntimeException ex) {
+                    // The classes might not be visible from this class loader
+                    return OBJECT.getInternalName();
+                }
+            }
+        };
 
         String internalName = className.replace('.', '/');
         type = Type.getObjectType(internalName);
         objectType = Type.getType(object);
+        objectClass = object;
 
         cw.visit(52, ACC_PUBLIC + ACC_SUPER, internalName,
                 OBJECT.getDescriptor() + "L" + BEAN.getInternalName() + "<" + objectType.getDescriptor() + ">;",
@@ -45,8 +97,6 @@ public class BeanCompiler {
 
         cw.visitSource(className, null);
 
-        generateConstructor();
-
         generateCreateBridge();
 
         generateSyntheticMethod("fill", GETTER);
@@ -60,6 +110,47 @@ public class BeanCompiler {
         endConversionMethod(fill, GETTER, fillStart);
         endConversionMethod(extract, SETTER, extractStart);
 
+        generateConstructor();
+
+        if (!internerFields.isEmpty()) {
+            generateInternersMethod();
+        }
+
+        generateCopyMethod(false);
+        generateCopyMethod(true);
+        generateDeepCopyMethod();
+
+        generateBridgeMethod("copyInto", Type.VOID_TYPE, objectType, objectType);
+        generateBridgeMethod("deepCopyInto", Type.VOID_TYPE, objectType, objectType, MAP);
+        generateBridgeMethod("deepCopy", objectType, objectType);
+
+        generateAppendMethod();
+        generateBridgeMethod("appendTo", Type.VOID_TYPE, objectType, STRING_BUILDER);
+
+        generateToColumnsMethod();
+        generateFromColumnsMethod();
+
+        generateStaticInitializer();
+        generateAtomicIndexMethod();
+
+        generateAtomicMethod("compareAndSetInt", "compareAndSet", Type.INT_TYPE, Type.BOOLEAN_TYPE, 2);
+        generateAtomicMethod("compareAndSetLong", "compareAndSet", Type.LONG_TYPE, Type.BOOLEAN_TYPE, 2);
+        generateAtomicMethod("compareAndSetObject", "compareAndSet", OBJECT, Type.BOOLEAN_TYPE, 2);
+        generateAtomicMethod("getAndAddInt", "getAndAdd", Type.INT_TYPE, Type.INT_TYPE, 1);
+        generateAtomicMethod("getAndAddLong", "getAndAdd", Type.LONG_TYPE, Type.LONG_TYPE, 1);
+        generateAtomicMethod("lazySetInt", "lazySet", Type.INT_TYPE, Type.VOID_TYPE, 1);
+        generateAtomicMethod("lazySetLong", "lazySet", Type.LONG_TYPE, Type.VOID_TYPE, 1);
+        generateAtomicMethod("lazySetObject", "lazySet", OBJECT, Type.VOID_TYPE, 1);
+
+        generateBridgeMethod("compareAndSetInt", Type.BOOLEAN_TYPE, objectType, Type.INT_TYPE, Type.INT_TYPE, Type.INT_TYPE);
+        generateBridgeMethod("compareAndSetLong", Type.BOOLEAN_TYPE, objectType, Type.INT_TYPE, Type.LONG_TYPE, Type.LONG_TYPE);
+        generateBridgeMethod("compareAndSetObject", Type.BOOLEAN_TYPE, objectType, Type.INT_TYPE, OBJECT, OBJECT);
+        generateBridgeMethod("getAndAddInt", Type.INT_TYPE, objectType, Type.INT_TYPE, Type.INT_TYPE);
+        generateBridgeMethod("getAndAddLong", Type.LONG_TYPE, objectType, Type.INT_TYPE, Type.LONG_TYPE);
+        generateBridgeMethod("lazySetInt", Type.VOID_TYPE, objectType, Type.INT_TYPE, Type.INT_TYPE);
+        generateBridgeMethod("lazySetLong", Type.VOID_TYPE, objectType, Type.INT_TYPE, Type.LONG_TYPE);
+        generateBridgeMethod("lazySetObject", Type.VOID_TYPE, objectType, Type.INT_TYPE, OBJECT);
+
         cw.visitEnd();
         return cw.toByteArray();
     }
@@ -67,15 +158,109 @@ public class BeanCompiler {
     private void generateConstructor() {
         Label start = new Label();
         Label end = new Label();
+        String descriptor = Type.getMethodDescriptor(Type.VOID_TYPE, MAP);
 
+        // this(null);
         MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
         mv.visitCode();
         mv.visitLabel(start);
         mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitMethodInsn(INVOKESPECIAL, type.getInternalName(), "<init>", descriptor, false);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitMaxs(2, 1);
+        mv.visitEnd();
+
+        // The interners of another bean of the same class can be reused, keeping their statistics
+        start = new Label();
+        end = new Label();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "<init>", descriptor, null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 0);
         mv.visitMethodInsn(INVOKESPECIAL, OBJECT.getInternalName(), "<init>", "()V", false);
+
+        if (!internerFields.isEmpty()) {
+            // Map interners = new LinkedHashMap();
+            mv.visitTypeInsn(NEW, LINKED_MAP.getInternalName());
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, LINKED_MAP.getInternalName(), "<init>", "()V", false);
+            mv.visitVarInsn(ASTORE, 2);
+
+            for (Map.Entry<String, String> entry : internerFields.entrySet()) {
+                String field = entry.getValue();
+                Label create = new Label();
+                Label assign = new Label();
+
+                // StringInterner interner = shared != null ? (StringInterner) shared.get(name) : null;
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitJumpInsn(IFNULL, create);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitLdcInsn(entry.getKey());
+                mv.visitMethodInsn(INVOKEINTERFACE, MAP.getInternalName(), "get", Type.getMethodDescriptor(OBJECT, OBJECT), true);
+                mv.visitTypeInsn(CHECKCAST, INTERNER.getInternalName());
+                mv.visitVarInsn(ASTORE, 3);
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitJumpInsn(IFNONNULL, assign);
+
+                // if (interner == null) interner = new StringInterner(capacity);
+                mv.visitLabel(create);
+                mv.visitTypeInsn(NEW, INTERNER.getInternalName());
+                mv.visitInsn(DUP);
+                mv.visitLdcInsn(internerCapacities.get(field));
+                mv.visitMethodInsn(INVOKESPECIAL, INTERNER.getInternalName(), "<init>", "(I)V", false);
+                mv.visitVarInsn(ASTORE, 3);
+
+                // this.internerN = interner;
+                mv.visitLabel(assign);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitFieldInsn(PUTFIELD, type.getInternalName(), field, INTERNER.getDescriptor());
+
+                // interners.put(name, interner);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitLdcInsn(entry.getKey());
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitMethodInsn(INVOKEINTERFACE, MAP.getInternalName(), "put", Type.getMethodDescriptor(OBJECT, OBJECT, OBJECT), true);
+                mv.visitInsn(POP);
+            }
+
+            // this.interners = Collections.unmodifiableMap(interners);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap", Type.getMethodDescriptor(MAP, MAP), false);
+            mv.visitFieldInsn(PUTFIELD, type.getInternalName(), "interners", MAP.getDescriptor());
+        }
+
         mv.visitInsn(RETURN);
         mv.visitLabel(end);
 
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("shared", MAP.getDescriptor(), null, start, end, 1);
+        mv.visitMaxs(4, 4);
+        mv.visitEnd();
+    }
+
+    private void generateInternersMethod() {
+        Label start = new Label();
+        Label end = new Label();
+
+        cw.visitField(ACC_PRIVATE + ACC_FINAL, "interners", MAP.getDescriptor(), null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "getInterners", Type.getMethodDescriptor(MAP), null, null);
+        mv.visitCode();
+
+        // return this.interners;
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, type.getInternalName(), "interners", MAP.getDescriptor());
+        mv.visitInsn(ARETURN);
+        mv.visitLabel(end);
+
         mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
         mv.visitMaxs(1, 1);
         mv.visitEnd();
@@ -124,6 +309,649 @@ public class BeanCompiler {
         mv.visitEnd();
     }
 
+    /**
+     * Generates a bridge method that casts the erased arguments and calls the typed method
+     * @param name The method name
+     * @param returnType The typed return type
+     * @param arguments The typed arguments
+     */
+    private void generateBridgeMethod(String name, Type returnType, Type ... arguments) {
+        Label start = new Label();
+        Label end = new Label();
+
+        Type[] erased = new Type[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            erased[i] = arguments[i] == objectType ? OBJECT : arguments[i];
+        }
+        Type erasedReturn = returnType == objectType ? OBJECT : returnType;
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC + ACC_BRIDGE + ACC_SYNTHETIC, name, Type.getMethodDescriptor(erasedReturn, erased), null, null);
+        mv.visitCode();
+
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 0);
+
+        int slot = 1;
+        for (int i = 0; i < arguments.length; i++) {
+            mv.visitVarInsn(arguments[i].getOpcode(ILOAD), slot);
+            if (arguments[i] != erased[i]) mv.visitTypeInsn(CHECKCAST, arguments[i].getInternalName());
+            slot += arguments[i].getSize();
+        }
+
+        mv.visitMethodInsn(INVOKEVIRTUAL, type.getInternalName(), name, Type.getMethodDescriptor(returnType, arguments), false);
+        mv.visitInsn(returnType.getOpcode(IRETURN));
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitMaxs(slot, slot);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates the copyInto or deepCopyInto method, which copies every property that can be both read and written
+     * @param deep Whether mutable values will be deep copied
+     */
+    private void generateCopyMethod(boolean deep) {
+        Label start = new Label();
+        Label end = new Label();
+        String descriptor = deep ? Type.getMethodDescriptor(Type.VOID_TYPE, objectType, objectType, MAP) :
+                Type.getMethodDescriptor(Type.VOID_TYPE, objectType, objectType);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, deep ? "deepCopyInto" : "copyInto", descriptor, null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+
+        for (Map.Entry<String, Property> entry : writers.entrySet()) {
+            Property writer = entry.getValue();
+            Property reader = readers.get(entry.getKey());
+
+            if (reader == null || reader.type != writer.type) continue;
+
+            // target.property = source.property;
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ALOAD, 1);
+            readProperty(mv, reader.type, reader.member);
+
+            if (deep && !DeepCopier.isImmutable(writer.type)) {
+                // target.property = (Type) DeepCopier.copy(source.property, copies);
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitMethodInsn(INVOKESTATIC, COPIER.getInternalName(), "copy", Type.getMethodDescriptor(OBJECT, OBJECT, MAP), false);
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(writer.type));
+            }
+
+            writeProperty(mv, writer.type, writer.member);
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("source", objectType.getDescriptor(), null, start, end, 1);
+        mv.visitLocalVariable("target", objectType.getDescriptor(), null, start, end, 2);
+        if (deep) mv.visitLocalVariable("copies", MAP.getDescriptor(), null, start, end, 3);
+        mv.visitMaxs(4, deep ? 4 : 3);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates the deepCopy method, which only tracks the copied instances when the properties may contain cycles
+     */
+    private void generateDeepCopyMethod() {
+        Label start = new Label();
+        Label end = new Label();
+        Set<Class<?>> visiting = new HashSet<>();
+        boolean acyclic = true;
+
+        visiting.add(objectClass);
+
+        for (Map.Entry<String, Property> entry : writers.entrySet()) {
+            Property writer = entry.getValue();
+            Property reader = readers.get(entry.getKey());
+
+            if (reader == null || reader.type != writer.type) continue;
+
+            acyclic &= DeepCopier.isAcyclic(writer.type, visiting);
+        }
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "deepCopy", Type.getMethodDescriptor(objectType, objectType), null, null);
+        mv.visitCode();
+
+        // return (T) DeepCopier.copy(this, instance, new IdentityHashMap());
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+
+        if (acyclic) {
+            mv.visitInsn(ACONST_NULL);
+        } else {
+            mv.visitTypeInsn(NEW, IDENTITY_MAP.getInternalName());
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, IDENTITY_MAP.getInternalName(), "<init>", "()V", false);
+        }
+
+        mv.visitMethodInsn(INVOKESTATIC, COPIER.getInternalName(), "copy", Type.getMethodDescriptor(OBJECT, BEAN, OBJECT, MAP), false);
+        mv.visitTypeInsn(CHECKCAST, objectType.getInternalName());
+        mv.visitInsn(ARETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("instance", objectType.getDescriptor(), null, start, end, 1);
+        mv.visitMaxs(5, 2);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates the appendTo method, which appends precomputed literals followed by each property value
+     */
+    private void generateAppendMethod() {
+        Label start = new Label();
+        Label end = new Label();
+        Label notNull = new Label();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "appendTo", Type.getMethodDescriptor(Type.VOID_TYPE, objectType, STRING_BUILDER), null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+
+        // if (instance == null) { builder.append("null"); return; }
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitJumpInsn(IFNONNULL, notNull);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitLdcInsn("null");
+        mv.visitMethodInsn(INVOKEVIRTUAL, STRING_BUILDER.getInternalName(), "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+
+        mv.visitLabel(notNull);
+        mv.visitVarInsn(ALOAD, 2);
+
+        // Consecutive literals are merged into a single append call
+        StringBuilder literal = new StringBuilder(objectClass.getSimpleName()).append('{');
+        boolean first = true;
+
+        for (Map.Entry<String, Property> entry : readers.entrySet()) {
+            FormatMode format = formats.get(entry.getKey());
+            if (format == FormatMode.HIDDEN) continue;
+
+            if (!first) literal.append(", ");
+            literal.append(entry.getKey()).append('=');
+            first = false;
+
+            if (format == FormatMode.MASKED) {
+                literal.append("****");
+                continue;
+            }
+
+            // builder.append(literal).append(instance.property)
+            mv.visitLdcInsn(literal.toString());
+            mv.visitMethodInsn(INVOKEVIRTUAL, STRING_BUILDER.getInternalName(), "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+            literal.setLength(0);
+
+            Property reader = entry.getValue();
+            mv.visitVarInsn(ALOAD, 1);
+            readProperty(mv, reader.type, reader.member);
+            mv.visitMethodInsn(INVOKEVIRTUAL, STRING_BUILDER.getInternalName(), "append", getAppendDescriptor(reader.type), false);
+        }
+
+        literal.append('}');
+        mv.visitLdcInsn(literal.toString());
+        mv.visitMethodInsn(INVOKEVIRTUAL, STRING_BUILDER.getInternalName(), "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("instance", objectType.getDescriptor(), null, start, end, 1);
+        mv.visitLocalVariable("builder", STRING_BUILDER.getDescriptor(), null, start, end, 2);
+        mv.visitMaxs(4, 3);
+        mv.visitEnd();
+    }
+
+    /**
+     * Gets the StringBuilder append overload for a type, which appends primitives without boxing them
+     * @param type The value type
+     * @return The method descriptor
+     */
+    private static String getAppendDescriptor(Class<?> type) {
+        Type argument;
+
+        if (type == int.class || type == short.class || type == byte.class) {
+            argument = Type.INT_TYPE;
+        } else if (type.isPrimitive() || type == String.class) {
+            argument = Type.getType(type);
+        } else if (CharSequence.class.isAssignableFrom(type)) {
+            argument = Type.getType(CharSequence.class);
+        } else {
+            argument = OBJECT;
+        }
+
+        return Type.getMethodDescriptor(STRING_BUILDER, argument);
+    }
+
+    /**
+     * Generates the toColumns method, which stores each readable property in its own array
+     */
+    private void generateToColumnsMethod() {
+        Label start = new Label();
+        Label end = new Label();
+        Label loop = new Label();
+        Label condition = new Label();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "toColumns", Type.getMethodDescriptor(COLUMNS, LIST), null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+
+        // int size = instances.size();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEINTERFACE, LIST.getInternalName(), "size", "()I", true);
+        mv.visitVarInsn(ISTORE, 2);
+
+        // BeanColumns columns = new BeanColumns(size);
+        mv.visitTypeInsn(NEW, COLUMNS.getInternalName());
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitMethodInsn(INVOKESPECIAL, COLUMNS.getInternalName(), "<init>", "(I)V", false);
+        mv.visitVarInsn(ASTORE, 3);
+
+        // Creates a local variable for each column
+        Map<String, Integer> locals = new LinkedHashMap<>();
+        int local = 7;
+
+        for (Map.Entry<String, Property> entry : readers.entrySet()) {
+            Class<?> type = entry.getValue().type;
+
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitLdcInsn(entry.getKey());
+
+            if (type == String.class) {
+                // StringColumn columnN = columns.createStringColumn(name);
+                // int[] codesN = columnN.getCodes();
+                mv.visitMethodInsn(INVOKEVIRTUAL, COLUMNS.getInternalName(), "createStringColumn", Type.getMethodDescriptor(STRING_COLUMN, Type.getType(String.class)), false);
+                mv.visitInsn(DUP);
+                mv.visitVarInsn(ASTORE, local);
+                mv.visitMethodInsn(INVOKEVIRTUAL, STRING_COLUMN.getInternalName(), "getCodes", "()[I", false);
+                mv.visitVarInsn(ASTORE, local + 1);
+                locals.put(entry.getKey(), local);
+                local += 2;
+            } else {
+                // type[] columnN = (type[]) columns.createColumn(name, type.class);
+                visitClassConstant(mv, type);
+                mv.visitMethodInsn(INVOKEVIRTUAL, COLUMNS.getInternalName(), "createColumn", "(Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+                mv.visitTypeInsn(CHECKCAST, getArrayType(type).getInternalName());
+                mv.visitVarInsn(ASTORE, local);
+                locals.put(entry.getKey(), local);
+                local += 1;
+            }
+        }
+
+        // Iterator iterator = instances.iterator();
+        // int i = 0;
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEINTERFACE, LIST.getInternalName(), "iterator", Type.getMethodDescriptor(ITERATOR), true);
+        mv.visitVarInsn(ASTORE, 6);
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 4);
+        mv.visitJumpInsn(GOTO, condition);
+
+        // T instance = (T) iterator.next();
+        mv.visitLabel(loop);
+        mv.visitVarInsn(ALOAD, 6);
+        mv.visitMethodInsn(INVOKEINTERFACE, ITERATOR.getInternalName(), "next", "()Ljava/lang/Object;", true);
+        mv.visitTypeInsn(CHECKCAST, objectType.getInternalName());
+        mv.visitVarInsn(ASTORE, 5);
+
+        for (Map.Entry<String, Property> entry : readers.entrySet()) {
+            Property reader = entry.getValue();
+            int column = locals.get(entry.getKey());
+
+            if (reader.type == String.class) {
+                // codesN[i] = columnN.encode(instance.property);
+                mv.visitVarInsn(ALOAD, column + 1);
+                mv.visitVarInsn(ILOAD, 4);
+                mv.visitVarInsn(ALOAD, column);
+                mv.visitVarInsn(ALOAD, 5);
+                readProperty(mv, reader.type, reader.member);
+                mv.visitMethodInsn(INVOKEVIRTUAL, STRING_COLUMN.getInternalName(), "encode", "(Ljava/lang/String;)I", false);
+                mv.visitInsn(IASTORE);
+            } else {
+                // columnN[i] = instance.property;
+                mv.visitVarInsn(ALOAD, column);
+                mv.visitVarInsn(ILOAD, 4);
+                mv.visitVarInsn(ALOAD, 5);
+                readProperty(mv, reader.type, reader.member);
+                mv.visitInsn(Type.getType(reader.type).getOpcode(IASTORE));
+            }
+        }
+
+        mv.visitIincInsn(4, 1);
+
+        // while (iterator.hasNext())
+        mv.visitLabel(condition);
+        mv.visitVarInsn(ALOAD, 6);
+        mv.visitMethodInsn(INVOKEINTERFACE, ITERATOR.getInternalName(), "hasNext", "()Z", true);
+        mv.visitJumpInsn(IFNE, loop);
+
+        // return columns;
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitInsn(ARETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("instances", LIST.getDescriptor(), null, start, end, 1);
+        mv.visitMaxs(5, local);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates the fromColumns method, which creates an instance for each row and writes the properties from the arrays
+     */
+    private void generateFromColumnsMethod() {
+        Label start = new Label();
+        Label end = new Label();
+        Label loop = new Label();
+        Label condition = new Label();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "fromColumns", Type.getMethodDescriptor(LIST, COLUMNS), null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+
+        // int size = columns.size();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, COLUMNS.getInternalName(), "size", "()I", false);
+        mv.visitVarInsn(ISTORE, 2);
+
+        // ArrayList instances = new ArrayList(size);
+        mv.visitTypeInsn(NEW, ARRAY_LIST.getInternalName());
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitMethodInsn(INVOKESPECIAL, ARRAY_LIST.getInternalName(), "<init>", "(I)V", false);
+        mv.visitVarInsn(ASTORE, 3);
+
+        // Loads each column that can be both read and written into a local variable
+        Map<String, Integer> locals = new LinkedHashMap<>();
+        int local = 6;
+
+        for (Map.Entry<String, Property> entry : writers.entrySet()) {
+            Property writer = entry.getValue();
+            Property reader = readers.get(entry.getKey());
+
+            if (reader == null || reader.type != writer.type) continue;
+
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitLdcInsn(entry.getKey());
+
+            if (writer.type == String.class) {
+                // StringColumn columnN = columns.getStringColumn(name);
+                // int[] codesN = columnN.getCodes();
+                mv.visitMethodInsn(INVOKEVIRTUAL, COLUMNS.getInternalName(), "getStringColumn", Type.getMethodDescriptor(STRING_COLUMN, Type.getType(String.class)), false);
+                mv.visitInsn(DUP);
+                mv.visitVarInsn(ASTORE, local);
+                mv.visitMethodInsn(INVOKEVIRTUAL, STRING_COLUMN.getInternalName(), "getCodes", "()[I", false);
+                mv.visitVarInsn(ASTORE, local + 1);
+                locals.put(entry.getKey(), local);
+                local += 2;
+            } else {
+                // type[] columnN = (type[]) columns.getColumn(name);
+                mv.visitMethodInsn(INVOKEVIRTUAL, COLUMNS.getInternalName(), "getColumn", "(Ljava/lang/String;)Ljava/lang/Object;", false);
+                mv.visitTypeInsn(CHECKCAST, getArrayType(writer.type).getInternalName());
+                mv.visitVarInsn(ASTORE, local);
+                locals.put(entry.getKey(), local);
+                local += 1;
+            }
+        }
+
+        // int i = 0;
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 4);
+        mv.visitJumpInsn(GOTO, condition);
+
+        // T instance = this.create();
+        mv.visitLabel(loop);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKEVIRTUAL, type.getInternalName(), "create", Type.getMethodDescriptor(objectType), false);
+        mv.visitVarInsn(ASTORE, 5);
+
+        for (Map.Entry<String, Integer> entry : locals.entrySet()) {
+            Property writer = writers.get(entry.getKey());
+            int column = entry.getValue();
+
+            mv.visitVarInsn(ALOAD, 5);
+
+            if (writer.type == String.class) {
+                // instance.property = columnN.decode(codesN[i]);
+                mv.visitVarInsn(ALOAD, column);
+                mv.visitVarInsn(ALOAD, column + 1);
+                mv.visitVarInsn(ILOAD, 4);
+                mv.visitInsn(IALOAD);
+                mv.visitMethodInsn(INVOKEVIRTUAL, STRING_COLUMN.getInternalName(), "decode", "(I)Ljava/lang/String;", false);
+            } else {
+                // instance.property = columnN[i];
+                mv.visitVarInsn(ALOAD, column);
+                mv.visitVarInsn(ILOAD, 4);
+                mv.visitInsn(Type.getType(writer.type).getOpcode(IALOAD));
+            }
+
+            writeProperty(mv, writer.type, writer.member);
+        }
+
+        // instances.add(instance);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitVarInsn(ALOAD, 5);
+        mv.visitMethodInsn(INVOKEVIRTUAL, ARRAY_LIST.getInternalName(), "add", "(Ljava/lang/Object;)Z", false);
+        mv.visitInsn(POP);
+
+        mv.visitIincInsn(4, 1);
+
+        // while (i < size)
+        mv.visitLabel(condition);
+        mv.visitVarInsn(ILOAD, 4);
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitJumpInsn(IF_ICMPLT, loop);
+
+        // return instances;
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitInsn(ARETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("columns", COLUMNS.getDescriptor(), null, start, end, 1);
+        mv.visitMaxs(5, local);
+        mv.visitEnd();
+    }
+
+    /**
+     * Pushes a class constant, such as {@code int.class} or {@code String.class}
+     * @param mv The method visitor
+     * @param type The class
+     */
+    private static void visitClassConstant(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            // Primitive classes are stored in the TYPE field of their wrappers
+            String wrapper;
+
+            if (type == int.class) wrapper = "java/lang/Integer";
+            else if (type == short.class) wrapper = "java/lang/Short";
+            else if (type == long.class) wrapper = "java/lang/Long";
+            else if (type == double.class) wrapper = "java/lang/Double";
+            else if (type == float.class) wrapper = "java/lang/Float";
+            else if (type == byte.class) wrapper = "java/lang/Byte";
+            else if (type == boolean.class) wrapper = "java/lang/Boolean";
+            else wrapper = "java/lang/Character";
+
+            mv.visitFieldInsn(GETSTATIC, wrapper, "TYPE", "Ljava/lang/Class;");
+        } else {
+            mv.visitLdcInsn(Type.getType(type));
+        }
+    }
+
+    private static Type getArrayType(Class<?> type) {
+        return Type.getType("[" + Type.getDescriptor(type));
+    }
+
+    /**
+     * Generates the static initializer, which creates the atomic field updaters
+     */
+    private void generateStaticInitializer() {
+        if (atomics.isEmpty()) return;
+
+        MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+
+        // atomicIndexes = new HashMap();
+        cw.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "atomicIndexes", MAP.getDescriptor(), null, null).visitEnd();
+        mv.visitTypeInsn(NEW, "java/util/HashMap");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/util/HashMap", "<init>", "()V", false);
+        mv.visitFieldInsn(PUTSTATIC, type.getInternalName(), "atomicIndexes", MAP.getDescriptor());
+
+        for (int i = 0; i < atomics.size(); i++) {
+            Atomic atomic = atomics.get(i);
+            Type updater = getUpdaterType(atomic.type);
+            String field = "atomic" + i;
+
+            cw.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, field, updater.getDescriptor(), null, null).visitEnd();
+
+            // atomicN = AtomicIntegerFieldUpdater.newUpdater(T.class, "name");
+            mv.visitLdcInsn(objectType);
+
+            if (updater == REFERENCE_UPDATER) {
+                mv.visitLdcInsn(Type.getType(atomic.field.getType()));
+                mv.visitLdcInsn(atomic.field.getName());
+                mv.visitMethodInsn(INVOKESTATIC, updater.getInternalName(), "newUpdater",
+                        "(Ljava/lang/Class;Ljava/lang/Class;Ljava/lang/String;)" + updater.getDescriptor(), false);
+            } else {
+                mv.visitLdcInsn(atomic.field.getName());
+                mv.visitMethodInsn(INVOKESTATIC, updater.getInternalName(), "newUpdater",
+                        "(Ljava/lang/Class;Ljava/lang/String;)" + updater.getDescriptor(), false);
+            }
+
+            mv.visitFieldInsn(PUTSTATIC, type.getInternalName(), field, updater.getDescriptor());
+
+            // atomicIndexes.put(name, i);
+            mv.visitFieldInsn(GETSTATIC, type.getInternalName(), "atomicIndexes", MAP.getDescriptor());
+            mv.visitLdcInsn(atomic.name);
+            mv.visitLdcInsn(i);
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+            mv.visitMethodInsn(INVOKEINTERFACE, MAP.getInternalName(), "put", Type.getMethodDescriptor(OBJECT, OBJECT, OBJECT), true);
+            mv.visitInsn(POP);
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(4, 0);
+        mv.visitEnd();
+    }
+
+    private void generateAtomicIndexMethod() {
+        Label start = new Label();
+        Label end = new Label();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "getAtomicIndex", "(Ljava/lang/String;)I", null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+
+        if (atomics.isEmpty()) {
+            // return -1;
+            mv.visitInsn(ICONST_M1);
+        } else {
+            // return atomicIndexes.getOrDefault(name, -1);
+            mv.visitFieldInsn(GETSTATIC, type.getInternalName(), "atomicIndexes", MAP.getDescriptor());
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitInsn(ICONST_M1);
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+            mv.visitMethodInsn(INVOKEINTERFACE, MAP.getInternalName(), "getOrDefault", Type.getMethodDescriptor(OBJECT, OBJECT, OBJECT), true);
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Integer");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Integer", "intValue", "()I", false);
+        }
+
+        mv.visitInsn(IRETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("property", "Ljava/lang/String;", null, start, end, 1);
+        mv.visitMaxs(3, 2);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates a method that switches over the atomic index and calls the field updater of that property
+     * @param name The method name
+     * @param updaterMethod The field updater method name
+     * @param valueType The value type (int, long or Object)
+     * @param returnType The return type
+     * @param values The amount of value arguments
+     */
+    private void generateAtomicMethod(String name, String updaterMethod, Type valueType, Type returnType, int values) {
+        Label start = new Label();
+        Label end = new Label();
+        Label fail = new Label();
+
+        Type[] arguments = new Type[values + 2];
+        arguments[0] = objectType;
+        arguments[1] = Type.INT_TYPE;
+        for (int i = 0; i < values; i++) arguments[i + 2] = valueType;
+
+        Type updater = getUpdaterType(valueType.getSort() == Type.OBJECT ? Object.class :
+                valueType == Type.LONG_TYPE ? long.class : int.class);
+
+        Type[] updaterArguments = new Type[values + 1];
+        updaterArguments[0] = OBJECT;
+        for (int i = 0; i < values; i++) updaterArguments[i + 1] = valueType;
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, name, Type.getMethodDescriptor(returnType, arguments), null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+
+        if (!atomics.isEmpty()) {
+            Label[] labels = new Label[atomics.size()];
+
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = getUpdaterType(atomics.get(i).type) == updater ? new Label() : fail;
+            }
+
+            // switch(index)
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitTableSwitchInsn(0, labels.length - 1, fail, labels);
+
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == fail) continue;
+
+                // case i: return atomicN.compareAndSet(instance, expect, update);
+                mv.visitLabel(labels[i]);
+                mv.visitFieldInsn(GETSTATIC, type.getInternalName(), "atomic" + i, updater.getDescriptor());
+                mv.visitVarInsn(ALOAD, 1);
+
+                int slot = 3;
+                for (int j = 0; j < values; j++) {
+                    mv.visitVarInsn(valueType.getOpcode(ILOAD), slot);
+                    slot += valueType.getSize();
+                }
+
+                mv.visitMethodInsn(INVOKEVIRTUAL, updater.getInternalName(), updaterMethod, Type.getMethodDescriptor(returnType, updaterArguments), false);
+                mv.visitInsn(returnType.getOpcode(IRETURN));
+            }
+        }
+
+        // throw new IllegalArgumentException("...");
+        mv.visitLabel(fail);
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn("The index is not of an atomic " + valueType.getClassName() + " property");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitLocalVariable("instance", objectType.getDescriptor(), null, start, end, 1);
+        mv.visitLocalVariable("index", "I", null, start, end, 2);
+        mv.visitMaxs(1 + values * 2 + 1, 3 + values * 2);
+        mv.visitEnd();
+    }
+
+    private static Type getUpdaterType(Class<?> type) {
+        if (type == int.class) return INT_UPDATER;
+        if (type == long.class) return LONG_UPDATER;
+        return REFERENCE_UPDATER;
+    }
+
     public void generateCreateMethod(Constructor<?> constructor) {
         int stackSize = 2;
         Label start = new Label();
@@ -187,6 +1015,11 @@ public class BeanCompiler {
     }
 
     public void addGetter(Class<?> type, String name, Member member) {
+        addGetter(type, name, member, 0);
+    }
+
+    @Override
+    public void addGetter(Class<?> type, String name, Member member, int internCapacity) {
         String mapperName = GETTER.getInternalName();
 
         fill.visitVarInsn(ALOAD, 1);
@@ -211,47 +1044,38 @@ public class BeanCompiler {
             fill.visitMethodInsn(INVOKEINTERFACE, mapperName, "getChar", "(Ljava/lang/String;)C", true);
         } else if(type == String.class) {
             fill.visitMethodInsn(INVOKEINTERFACE, mapperName, "getString", "(Ljava/lang/String;)Ljava/lang/String;", true);
+
+            if (internCapacity > 0) {
+                // Deduplicates the value with this.internerN.intern(value)
+                fill.visitVarInsn(ALOAD, 0);
+                fill.visitFieldInsn(GETFIELD, this.type.getInternalName(), getInternerField(name, internCapacity), INTERNER.getDescriptor());
+                fill.visitInsn(SWAP);
+                fill.visitMethodInsn(INVOKEVIRTUAL, INTERNER.getInternalName(), "intern", "(Ljava/lang/String;)Ljava/lang/String;", false);
+            }
         } else {
             // Gets the object and then casts it to the expected type
             fill.visitMethodInsn(INVOKEINTERFACE, mapperName, "getObject", "(Ljava/lang/String;)Ljava/lang/Object;", true);
             if(type != Object.class) fill.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
         }
 
-        if (member instanceof Field) {
-            Field f = (Field) member;
-
-            fill.visitFieldInsn(PUTFIELD, objectType.getInternalName(), f.getName(), Type.getDescriptor(type));
-        } else if (member instanceof Method) {
-            Method m = (Method) member;
-
-            fill.visitMethodInsn(INVOKEVIRTUAL, objectType.getInternalName(), m.getName(), Type.getMethodDescriptor(m), false);
+        writeProperty(fill, type, member);
 
-            if(m.getReturnType() != void.class) {
-                fill.visitInsn(POP);
-            }
-        } else {
-            throw new RuntimeException("Unknown member type");
-        }
+        writers.putIfAbsent(name, new Property(type, member));
     }
 
     public void addSetter(Class<?> type, String name, Member member) {
+        addSetter(type, name, member, FormatMode.VISIBLE);
+    }
+
+    @Override
+    public void addSetter(Class<?> type, String name, Member member, FormatMode format) {
         String mapperName = SETTER.getInternalName();
 
         extract.visitVarInsn(ALOAD, 2);
         extract.visitLdcInsn(name);
         extract.visitVarInsn(ALOAD, 1);
 
-        if (member instanceof Field) {
-            Field f = (Field) member;
-
-            extract.visitFieldInsn(GETFIELD, objectType.getInternalName(), f.getName(), Type.getDescriptor(type));
-        } else if (member instanceof Method) {
-            Method m = (Method) member;
-
-            extract.visitMethodInsn(INVOKEVIRTUAL, objectType.getInternalName(), m.getName(), Type.getMethodDescriptor(m), false);
-        } else {
-            throw new RuntimeException("Unknown member type");
-        }
+        readProperty(extract, type, member);
 
         if(type == int.class) {
             extract.visitMethodInsn(INVOKEINTERFACE, mapperName, "setInt", "(Ljava/lang/String;I)V", true);
@@ -274,6 +1098,129 @@ public class BeanCompiler {
         } else {
             extract.visitMethodInsn(INVOKEINTERFACE, mapperName, "setObject", "(Ljava/lang/String;Ljava/lang/Object;)V", true);
         }
+
+        readers.putIfAbsent(name, new Property(type, member));
+        formats.putIfAbsent(name, format);
+
+        if (member instanceof Field) {
+            addAtomic(type, name, (Field) member);
+        }
+    }
+
+    /**
+     * Registers a volatile field to be updated atomically
+     * @param type The property type
+     * @param name The property name
+     * @param field The field
+     */
+    private void addAtomic(Class<?> type, String name, Field field) {
+        int modifiers = field.getModifiers();
+
+        if (!Modifier.isVolatile(modifiers) || Modifier.isFinal(modifiers)) return;
+
+        // The updaters are created by the generated class, which can only access public fields of public classes
+        if (!FastBean.isAccessible(field)) return;
+
+        // Field updaters only support int, long and reference fields
+        if (type.isPrimitive() && type != int.class && type != long.class) return;
+
+        for (Atomic atomic : atomics) {
+            if (atomic.name.equals(name)) return;
+        }
+
+        atomics.add(new Atomic(type, name, field));
+    }
+
+    /**
+     * Gets the field that holds the interner of a property, creating it if it doesn't exist yet
+     * @param name The property name
+     * @param capacity The interner capacity
+     * @return The field name
+     */
+    private String getInternerField(String name, int capacity) {
+        String field = internerFields.get(name);
+        if (field != null) return field;
+
+        field = "interner" + internerFields.size();
+        cw.visitField(ACC_PRIVATE + ACC_FINAL, field, INTERNER.getDescriptor(), null, null).visitEnd();
+
+        internerFields.put(name, field);
+        internerCapacities.put(field, capacity);
+        return field;
+    }
+
+    /**
+     * Reads the property value from the instance on the top of the stack
+     * @param mv The method visitor
+     * @param type The property type
+     * @param member The field or getter method
+     */
+    private void readProperty(MethodVisitor mv, Class<?> type, Member member) {
+        if (member instanceof Field) {
+            Field f = (Field) member;
+
+            mv.visitFieldInsn(GETFIELD, objectType.getInternalName(), f.getName(), Type.getDescriptor(type));
+        } else if (member instanceof Method) {
+            Method m = (Method) member;
+
+            mv.visitMethodInsn(INVOKEVIRTUAL, objectType.getInternalName(), m.getName(), Type.getMethodDescriptor(m), false);
+        } else {
+            throw new RuntimeException("Unknown member type");
+        }
+    }
+
+    /**
+     * Writes the value on the top of the stack into the instance right below it
+     * @param mv The method visitor
+     * @param type The property type
+     * @param member The field or setter method
+     */
+    private void writeProperty(MethodVisitor mv, Class<?> type, Member member) {
+        if (member instanceof Field) {
+            Field f = (Field) member;
+
+            mv.visitFieldInsn(PUTFIELD, objectType.getInternalName(), f.getName(), Type.getDescriptor(type));
+        } else if (member instanceof Method) {
+            Method m = (Method) member;
+
+            mv.visitMethodInsn(INVOKEVIRTUAL, objectType.getInternalName(), m.getName(), Type.getMethodDescriptor(m), false);
+
+            Class<?> returnType = m.getReturnType();
+
+            if(returnType == long.class || returnType == double.class) {
+                mv.visitInsn(POP2);
+            } else if(returnType != void.class) {
+                mv.visitInsn(POP);
+            }
+        } else {
+            throw new RuntimeException("Unknown member type");
+        }
+    }
+
+    private static class Atomic {
+
+        private final Class<?> type;
+        private final String name;
+        private final Field field;
+
+        private Atomic(Class<?> type, String name, Field field) {
+            this.type = type;
+            this.name = name;
+            this.field = field;
+        }
+
+    }
+
+    private static class Property {
+
+        private final Class<?> type;
+        private final Member member;
+
+        private Property(Class<?> type, Member member) {
+            this.type = type;
+            this.member = member;
+        }
+
     }
 
 }
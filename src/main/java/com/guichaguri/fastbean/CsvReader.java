@@ -0,0 +1,684 @@
+package com.guichaguri.fastbean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams delimited text (CSV, TSV, etc) into POJO instances using a {@link Bean}.
+ *
+ * The first record is the header, its names are matched against the property names once.
+ * Numeric cells are parsed straight from the bytes, only String properties allocate a String.
+ * Properties of any other object type (wrappers, enums, etc) are not converted and are filled with {@code null}.
+ *
+ * @author Guichaguri
+ */
+public class CsvReader<T> {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final long DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private final Bean<T> bean;
+    private final byte delimiter;
+    private final Charset charset;
+
+    /**
+     * Creates a comma separated UTF-8 reader
+     * @param bean The bean that will be filled with the data
+     */
+    public CsvReader(Bean<T> bean) {
+        this(bean, ',', StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a delimited reader
+     * @param bean The bean that will be filled with the data
+     * @param delimiter The cell delimiter, must be an ASCII character
+     * @param charset The charset used to decode String cells, must be ASCII compatible
+     */
+    public CsvReader(Bean<T> bean, char delimiter, Charset charset) {
+        if (delimiter > 0x7F || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+
+        this.bean = bean;
+        this.delimiter = (byte) delimiter;
+        this.charset = charset;
+    }
+
+    /**
+     * Reads every record from the channel, creating and filling a new instance for each one
+     * @param channel The data source
+     * @param consumer The instance receiver
+     * @throws IOException When the channel could not be read
+     */
+    public void read(ReadableByteChannel channel, Consumer<? super T> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        Record record = new Record(delimiter, charset);
+        boolean eof = false;
+
+        buffer.limit(0);
+
+        while (true) {
+            int position = buffer.position();
+            int limit = buffer.limit();
+
+            while (position < limit) {
+                int next = record.parse(buffer, position, limit, eof);
+                if (next < 0) break; // The record is incomplete, we need more data
+
+                accept(record, consumer);
+                position = next;
+            }
+
+            if (eof) break;
+
+            buffer.position(position);
+            buffer.compact();
+
+            if (!buffer.hasRemaining()) {
+                // A single record doesn't fit in the buffer, so we'll grow it
+                buffer.flip();
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer);
+            }
+
+            eof = channel.read(buffer) < 0;
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Reads every record from a file, creating and filling a new instance for each one
+     * @param file The file path
+     * @param consumer The instance receiver
+     * @throws IOException When the file could not be read
+     */
+    public void read(Path file, Consumer<? super T> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel, consumer);
+        }
+    }
+
+    /**
+     * Reads every record from a file in parallel.
+     *
+     * The file is memory mapped and split on line boundaries, so quoted cells cannot contain line breaks.
+     * The consumer is called from multiple threads and the records are not received in order.
+     *
+     * @param file The file path
+     * @param consumer The thread-safe instance receiver
+     * @throws IOException When the file could not be read
+     */
+    public void readParallel(Path file, Consumer<? super T> consumer) throws IOException {
+        readParallel(file, consumer, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Reads every record from a file in parallel.
+     *
+     * The file is memory mapped and split on line boundaries, so quoted cells cannot contain line breaks.
+     * The consumer is called from multiple threads and the records are not received in order.
+     *
+     * @param file The file path
+     * @param consumer The thread-safe instance receiver
+     * @param chunkSize The approximate amount of bytes each task will parse
+     * @throws IOException When the file could not be read
+     */
+    public void readParallel(Path file, Consumer<? super T> consumer, long chunkSize) throws IOException {
+        if (chunkSize <= 0 || chunkSize >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // Parses the header sequentially
+            long start = nextLine(channel, 0, size);
+            if (start == 0) return;
+
+            Record header = new Record(delimiter, charset);
+            ByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, start);
+            header.parse(headerBuffer, 0, (int) start, true);
+            Map<String, Integer> columns = header.toColumns();
+
+            // Splits the rest of the file on line boundaries
+            List<long[]> chunks = new ArrayList<>();
+
+            while (start < size) {
+                long end = start + chunkSize >= size ? size : nextLine(channel, start + chunkSize, size);
+
+                if (end - start >= Integer.MAX_VALUE) {
+                    throw new IOException("The line at " + start + " is too long to be mapped");
+                }
+
+                chunks.add(new long[]{start, end});
+                start = end;
+            }
+
+            chunks.parallelStream().forEach(chunk -> {
+                try {
+                    int length = (int) (chunk[1] - chunk[0]);
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], length);
+                    Record record = new Record(delimiter, charset);
+                    record.columns = columns;
+
+                    int position = 0;
+                    while (position < length) {
+                        position = record.parse(buffer, position, length, true);
+                        accept(record, consumer);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates and fills an instance from the record, or reads the header if it hasn't been read yet
+     * @param record The parsed record
+     * @param consumer The instance receiver
+     */
+    private void accept(Record record, Consumer<? super T> consumer) {
+        if (record.columns == null) {
+            record.columns = record.toColumns();
+        } else if (!record.isBlank()) {
+            T instance = bean.create();
+            bean.fill(instance, record);
+            consumer.accept(instance);
+        }
+    }
+
+    /**
+     * Finds the start of the line after the position
+     * @param channel The file channel
+     * @param position The position to start searching from
+     * @param size The file size
+     * @return The position of the next line or the file size
+     * @throws IOException When the file could not be read
+     */
+    private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) break;
+
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+
+            position += read;
+        }
+
+        return size;
+    }
+
+    /**
+     * A parsed record that serves as the data provider for the bean.
+     *
+     * Cells are kept as offsets into the buffer and are only decoded when the bean asks for them.
+     */
+    private static class Record implements IPropertyGetter {
+
+        private static final double[] DOUBLE_POWERS = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+                1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+        private static final float[] FLOAT_POWERS = {
+                1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+        };
+
+        private final byte delimiter;
+        private final Charset charset;
+
+        private Map<String, Integer> columns;
+
+        private ByteBuffer buffer;
+        private int count;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private boolean[] escaped = new boolean[16];
+
+        // The bean always requests the properties in the same order with the same String instances,
+        // so we remember the column of each request and compare the names by identity
+        private int lookups;
+        private String[] lookupNames = new String[16];
+        private int[] lookupColumns = new int[16];
+
+        private byte[] scratch = new byte[64];
+
+        // The result of the last decimal scan
+        private boolean negative;
+        private long mantissa;
+        private int exponent;
+
+        Record(byte delimiter, Charset charset) {
+            this.delimiter = delimiter;
+            this.charset = charset;
+        }
+
+        /**
+         * Splits the record that starts at the position into cells
+         * @param buffer The data buffer
+         * @param position The start of the record
+         * @param limit The end of the available data
+         * @param eof Whether there's no more data after the limit
+         * @return The start of the next record or {@code -1} if the record is incomplete
+         */
+        int parse(ByteBuffer buffer, int position, int limit, boolean eof) {
+            this.buffer = buffer;
+            this.count = 0;
+            this.lookups = 0;
+
+            int i = position;
+
+            while (true) {
+                if (i < limit && buffer.get(i) == '"') {
+                    int start = ++i;
+                    boolean quotes = false;
+
+                    while (true) {
+                        if (i >= limit) {
+                            if (!eof) return -1;
+                            break; // Unterminated quote, we'll use everything until the end
+                        }
+
+                        if (buffer.get(i) == '"') {
+                            if (i + 1 >= limit && !eof) return -1;
+                            if (i + 1 >= limit || buffer.get(i + 1) != '"') break;
+
+                            quotes = true;
+                            i++;
+                        }
+
+                        i++;
+                    }
+
+                    addCell(start, Math.min(i, limit), quotes);
+                    i++;
+
+                    // Ignores anything between the closing quote and the delimiter
+                    while (i < limit && !isTerminator(buffer.get(i))) i++;
+                } else {
+                    int start = i;
+
+                    while (i < limit && !isTerminator(buffer.get(i))) i++;
+
+                    addCell(start, i, false);
+                }
+
+                if (i >= limit) return eof ? limit : -1;
+
+                byte b = buffer.get(i);
+
+                if (b == delimiter) {
+                    i++;
+                } else if (b == '\r') {
+                    if (i + 1 >= limit) return eof ? limit : -1;
+                    return buffer.get(i + 1) == '\n' ? i + 2 : i + 1;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+
+        boolean isBlank() {
+            return count == 1 && starts[0] == ends[0] && !escaped[0];
+        }
+
+        Map<String, Integer> toColumns() {
+            Map<String, Integer> columns = new HashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                String name = getCell(i).trim();
+
+                // Removes the byte order mark
+                if (i == 0 && !name.isEmpty() && name.charAt(0) == '\uFEFF') name = name.substring(1);
+
+                columns.putIfAbsent(name, i);
+            }
+
+            return columns;
+        }
+
+        private boolean isTerminator(byte b) {
+            return b == delimiter || b == '\n' || b == '\r';
+        }
+
+        private void addCell(int start, int end, boolean quotes) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                escaped = Arrays.copyOf(escaped, count * 2);
+            }
+
+            starts[count] = start;
+            ends[count] = end;
+            escaped[count] = quotes;
+            count++;
+        }
+
+        /**
+         * Finds the cell index of a property
+         * @param property The property name
+         * @return The cell index or {@code -1} if the property is not present
+         */
+        private int column(String property) {
+            int slot = lookups++;
+
+            if (slot < lookupNames.length && lookupNames[slot] == property) {
+                int column = lookupColumns[slot];
+                return column < count ? column : -1;
+            }
+
+            Integer index = columns.get(property);
+            int column = index == null ? -1 : index;
+
+            if (slot >= lookupNames.length) {
+                lookupNames = Arrays.copyOf(lookupNames, slot * 2);
+                lookupColumns = Arrays.copyOf(lookupColumns, slot * 2);
+            }
+
+            lookupNames[slot] = property;
+            lookupColumns[slot] = column;
+
+            return column < count ? column : -1;
+        }
+
+        private String getCell(int column) {
+            int start = starts[column];
+            int length = ends[column] - start;
+
+            if (escaped[column]) {
+                // Collapses the escaped quotes
+                byte[] bytes = scratch(length);
+                int size = 0;
+
+                for (int i = start; i < start + length; i++) {
+                    byte b = buffer.get(i);
+                    bytes[size++] = b;
+                    if (b == '"') i++;
+                }
+
+                return new String(bytes, 0, size, charset);
+            } else if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + start, length, charset);
+            } else {
+                byte[] bytes = scratch(length);
+
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = buffer.get(start + i);
+                }
+
+                return new String(bytes, 0, length, charset);
+            }
+        }
+
+        private byte[] scratch(int length) {
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            return scratch;
+        }
+
+        /**
+         * Finds the start of the cell without the leading spaces
+         * @param column The cell index
+         * @return The start position
+         */
+        private int trimStart(int column) {
+            int start = starts[column];
+            int end = ends[column];
+
+            while (start < end && buffer.get(start) == ' ') start++;
+            return start;
+        }
+
+        /**
+         * Finds the end of the cell without the trailing spaces
+         * @param column The cell index
+         * @param start The trimmed start position
+         * @return The end position
+         */
+        private int trimEnd(int column, int start) {
+            int end = ends[column];
+
+            while (end > start && buffer.get(end - 1) == ' ') end--;
+            return end;
+        }
+
+        private long parseLong(int column, long min, long max) {
+            int start = trimStart(column);
+            int end = trimEnd(column, start);
+
+            if (start == end) return 0;
+
+            byte first = buffer.get(start);
+            boolean negative = first == '-';
+            if (negative || first == '+') start++;
+
+            if (start == end) throw invalidNumber(column);
+
+            // Accumulates negatively, as the negative range is larger and fits Long.MIN_VALUE
+            long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long value = 0;
+
+            for (int i = start; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+
+                if (digit < 0 || digit > 9 || value < (limit + digit) / 10) {
+                    throw invalidNumber(column);
+                }
+
+                value = value * 10 - digit;
+            }
+
+            if (!negative) value = -value;
+            if (value < min || value > max) throw invalidNumber(column);
+
+            return value;
+        }
+
+        /**
+         * Scans a decimal number into the mantissa and exponent fields
+         * @param column The cell index
+         * @return Whether the number is a plain decimal that was fully scanned
+         */
+        private boolean scanDecimal(int column) {
+            int start = trimStart(column);
+            int end = trimEnd(column, start);
+
+            negative = false;
+            mantissa = 0;
+            exponent = 0;
+
+            if (start == end) return true;
+
+            int i = start;
+            byte b = buffer.get(i);
+
+            if (b == '-' || b == '+') {
+                negative = b == '-';
+                i++;
+            }
+
+            int significant = 0;
+            boolean valid = false;
+
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) break;
+
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) significant++;
+                } else {
+                    exponent++;
+                }
+                valid = true;
+            }
+
+            if (i < end && buffer.get(i) == '.') {
+                for (i++; i < end; i++) {
+                    int digit = buffer.get(i) - '0';
+                    if (digit < 0 || digit > 9) break;
+
+                    if (significant < 18) {
+                        mantissa = mantissa * 10 + digit;
+                        if (mantissa != 0) significant++;
+                        exponent--;
+                    }
+                    valid = true;
+                }
+            }
+
+            if (valid && i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+                i++;
+                boolean negativeExponent = false;
+
+                if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                    negativeExponent = buffer.get(i) == '-';
+                    i++;
+                }
+
+                if (i == end) return false;
+
+                int value = 0;
+
+                for (; i < end; i++) {
+                    int digit = buffer.get(i) - '0';
+                    if (digit < 0 || digit > 9) return false;
+                    if (value < 10000) value = value * 10 + digit;
+                }
+
+                exponent += negativeExponent ? -value : value;
+            }
+
+            return valid && i == end;
+        }
+
+        private NumberFormatException invalidNumber(int column) {
+            return new NumberFormatException("Invalid number: \"" + getCell(column) + "\"");
+        }
+
+        /**
+         * Object properties can't be converted without knowing their types
+         * @param property The property name
+         * @return Always {@code null}
+         */
+        @Override
+        public Object getObject(String property) {
+            column(property); // Keeps the lookup cache aligned with the property order
+            return null;
+        }
+
+        @Override
+        public String getString(String property) {
+            int column = column(property);
+            return column < 0 ? null : getCell(column);
+        }
+
+        @Override
+        public short getShort(String property) {
+            int column = column(property);
+            return column < 0 ? 0 : (short) parseLong(column, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+
+        @Override
+        public int getInt(String property) {
+            int column = column(property);
+            return column < 0 ? 0 : (int) parseLong(column, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getLong(String property) {
+            int column = column(property);
+            return column < 0 ? 0 : parseLong(column, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        @Override
+        public byte getByte(String property) {
+            int column = column(property);
+            return column < 0 ? 0 : (byte) parseLong(column, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+
+        @Override
+        public double getDouble(String property) {
+            int column = column(property);
+            if (column < 0) return 0;
+
+            if (scanDecimal(column)) {
+                if (mantissa == 0) return negative ? -0.0 : 0.0;
+
+                // Both the mantissa and the power of ten are exact, so a single operation is correctly rounded
+                if (mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+                    double value = mantissa;
+                    value = exponent < 0 ? value / DOUBLE_POWERS[-exponent] : value * DOUBLE_POWERS[exponent];
+                    return negative ? -value : value;
+                }
+            }
+
+            return Double.parseDouble(getCell(column));
+        }
+
+        @Override
+        public float getFloat(String property) {
+            int column = column(property);
+            if (column < 0) return 0;
+
+            if (scanDecimal(column)) {
+                if (mantissa == 0) return negative ? -0.0f : 0.0f;
+
+                if (mantissa < (1L << 24) && exponent >= -10 && exponent <= 10) {
+                    float value = mantissa;
+                    value = exponent < 0 ? value / FLOAT_POWERS[-exponent] : value * FLOAT_POWERS[exponent];
+                    return negative ? -value : value;
+                }
+            }
+
+            return Float.parseFloat(getCell(column));
+        }
+
+        @Override
+        public boolean getBoolean(String property) {
+            int column = column(property);
+            if (column < 0) return false;
+
+            int start = trimStart(column);
+            int length = trimEnd(column, start) - start;
+
+            if (length == 1) return buffer.get(start) == '1';
+            if (length != 4) return false;
+
+            return (buffer.get(start) | 0x20) == 't' && (buffer.get(start + 1) | 0x20) == 'r'
+                    && (buffer.get(start + 2) | 0x20) == 'u' && (buffer.get(start + 3) | 0x20) == 'e';
+        }
+
+        @Override
+        public char getChar(String property) {
+            int column = column(property);
+            if (column < 0) return 0;
+
+            int start = trimStart(column);
+            if (start == ends[column]) return 0;
+
+            // The leading spaces are single bytes, so they take as many chars as bytes in the decoded cell
+            byte first = buffer.get(start);
+            return first >= 0 ? (char) first : getCell(column).charAt(start - starts[column]);
+        }
+
+    }
+
+}
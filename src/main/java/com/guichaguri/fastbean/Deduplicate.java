@@ -0,0 +1,26 @@
+package com.guichaguri.fastbean;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a String field or setter to have its values deduplicated when filled.
+ *
+ * Useful for properties with few distinct values, such as statuses or country codes.
+ *
+ * @author Guichaguri
+ * @see StringInterner
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Deduplicate {
+
+    /**
+     * The maximum amount of distinct strings kept for this property
+     * @return The capacity
+     */
+    int capacity() default 1024;
+
+}
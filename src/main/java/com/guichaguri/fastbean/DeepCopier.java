@@ -0,0 +1,266 @@
+package com.guichaguri.fastbean;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Deep copies property values. This class is used by the generated beans.
+ *
+ * Arrays, collections and maps are copied element by element, other classes are copied through their own beans.
+ * JDK classes that are not arrays, collections or maps are kept as the same reference, and so are classes
+ * that can't be copied property by property (e.g. a value class with final fields and no setters).
+ * Collections and maps are copied into an instance of the same class, or kept when one can't be created.
+ *
+ * @author Guichaguri
+ */
+public final class DeepCopier {
+
+    private static final ClassValue<Bean<?>> BEANS = new ClassValue<Bean<?>>() {
+        @Override
+        protected Bean<?> computeValue(Class<?> type) {
+            return isJavaClass(type) || !FastBean.isCopyable(type) ? null : FastBean.compile(type);
+        }
+    };
+
+    private DeepCopier() {}
+
+    /**
+     * Deep copies an instance using its bean
+     * @param bean The bean of the instance
+     * @param instance The instance
+     * @param copies The instances already copied or {@code null} if there are no cycles
+     * @param <T> The instance type
+     * @return The copy
+     */
+    public static <T> T copy(Bean<T> bean, T instance, Map<Object, Object> copies) {
+        if (instance == null) return null;
+
+        T copy = bean.create();
+        if (copies != null) copies.put(instance, copy);
+
+        bean.deepCopyInto(instance, copy, copies);
+        return copy;
+    }
+
+    /**
+     * Deep copies a property value
+     * @param value The value
+     * @param copies The instances already copied or {@code null} if there are no cycles
+     * @return The copy
+     */
+    @SuppressWarnings("unchecked")
+    public static Object copy(Object value, Map<Object, Object> copies) {
+        if (value == null) return null;
+
+        Class<?> type = value.getClass();
+        if (isImmutable(type)) return value;
+
+        if (copies != null) {
+            Object copy = copies.get(value);
+            if (copy != null) return copy;
+        }
+
+        if (type.isArray()) {
+            return copyArray(value, type.getComponentType(), copies);
+        } else if (value instanceof Collection) {
+            return copyCollection((Collection<Object>) value, copies);
+        } else if (value instanceof Map) {
+            return copyMap((Map<Object, Object>) value, copies);
+        }
+
+        Bean<Object> bean = (Bean<Object>) BEANS.get(type);
+        return bean == null ? value : copy(bean, value, copies);
+    }
+
+    private static Object copyArray(Object array, Class<?> component, Map<Object, Object> copies) {
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(component, length);
+
+        if (copies != null) copies.put(array, copy);
+
+        if (component.isPrimitive() || isImmutable(component)) {
+            System.arraycopy(array, 0, copy, 0, length);
+        } else {
+            Object[] source = (Object[]) array;
+            Object[] target = (Object[]) copy;
+
+            for (int i = 0; i < length; i++) {
+                target[i] = copy(source[i], copies);
+            }
+        }
+
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> copyCollection(Collection<Object> collection, Map<Object, Object> copies) {
+        Class<?> type = collection.getClass();
+        Collection<Object> copy;
+
+        // The copy must be of the same class, as the bean casts it to the declared property type
+        if (type == ArrayList.class) {
+            copy = new ArrayList<>(collection.size());
+        } else if (type == LinkedList.class) {
+            copy = new LinkedList<>();
+        } else if (type == ArrayDeque.class) {
+            copy = new ArrayDeque<>(collection.size());
+        } else if (type == HashSet.class) {
+            copy = new HashSet<>(collection.size());
+        } else if (type == LinkedHashSet.class) {
+            copy = new LinkedHashSet<>(collection.size());
+        } else if (type == TreeSet.class) {
+            copy = new TreeSet<>(((TreeSet<Object>) collection).comparator());
+        } else if (type == ConcurrentSkipListSet.class) {
+            copy = new ConcurrentSkipListSet<>(((ConcurrentSkipListSet<Object>) collection).comparator());
+        } else if (type == PriorityQueue.class) {
+            copy = new PriorityQueue<>(Math.max(collection.size(), 1), ((PriorityQueue<Object>) collection).comparator());
+        } else if (collection instanceof EnumSet) {
+            // Enums are immutable, so the elements don't need to be copied
+            copy = (Collection<Object>) (Collection<?>) ((EnumSet<?>) collection).clone();
+            if (copies != null) copies.put(collection, copy);
+            return copy;
+        } else if (collection instanceof SortedSet || collection instanceof PriorityQueue) {
+            return collection; // We can't create an empty instance with the same comparator
+        } else {
+            copy = (Collection<Object>) newInstance(type);
+            if (copy == null) return collection;
+        }
+
+        if (copies != null) copies.put(collection, copy);
+
+        for (Object element : collection) {
+            copy.add(copy(element, copies));
+        }
+
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> copyMap(Map<Object, Object> map, Map<Object, Object> copies) {
+        Class<?> type = map.getClass();
+        Map<Object, Object> copy;
+
+        // The copy must be of the same class, as the bean casts it to the declared property type
+        if (type == HashMap.class) {
+            copy = new HashMap<>(map.size());
+        } else if (type == LinkedHashMap.class) {
+            // Cloning keeps the access order
+            copy = (Map<Object, Object>) ((LinkedHashMap<Object, Object>) map).clone();
+            copy.clear();
+        } else if (type == TreeMap.class) {
+            copy = new TreeMap<>(((TreeMap<Object, Object>) map).comparator());
+        } else if (type == ConcurrentSkipListMap.class) {
+            copy = new ConcurrentSkipListMap<>(((ConcurrentSkipListMap<Object, Object>) map).comparator());
+        } else if (type == EnumMap.class) {
+            // Keeps the key type, the values are replaced by their copies below
+            copy = (Map<Object, Object>) (Map<?, ?>) ((EnumMap<?, ?>) map).clone();
+        } else if (map instanceof SortedMap) {
+            return map; // We can't create an empty instance with the same comparator
+        } else {
+            copy = (Map<Object, Object>) newInstance(type);
+            if (copy == null) return map;
+        }
+
+        if (copies != null) copies.put(map, copy);
+
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            copy.put(copy(entry.getKey(), copies), copy(entry.getValue(), copies));
+        }
+
+        return copy;
+    }
+
+    /**
+     * Creates an empty instance of a collection or map using its public no-args constructor
+     * @param type The class
+     * @return The instance or {@code null} if it could not be created
+     */
+    private static Object newInstance(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) return null;
+
+        try {
+            return type.getConstructor().newInstance();
+        } catch(ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isJavaClass(Class<?> type) {
+        if (type.getClassLoader() == null) return true; // Loaded by the bootstrap class loader
+
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+                || name.startsWith("com.sun.") || name.startsWith("jdk.");
+    }
+
+    /**
+     * Checks whether instances of a class can be shared between copies
+     * @param type The class
+     * @return Whether the class is immutable
+     */
+    static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || type == String.class || type == Integer.class || type == Long.class
+                || type == Double.class || type == Float.class || type == Short.class || type == Byte.class
+                || type == Boolean.class || type == Character.class || type == BigInteger.class
+                || type == BigDecimal.class || type == UUID.class || type == Class.class
+                || Enum.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Checks whether the values of a property type can never reference an instance that is already being copied.
+     *
+     * Only final classes can be checked, any other class may have a subclass that introduces a cycle.
+     *
+     * @param type The property type
+     * @param visiting The classes that are being checked
+     * @return Whether the type can't contain cycles
+     */
+    static boolean isAcyclic(Class<?> type, Set<Class<?>> visiting) {
+        while (type.isArray()) type = type.getComponentType();
+
+        if (isImmutable(type)) return true;
+        if (!Modifier.isFinal(type.getModifiers()) || isJavaClass(type)) return false;
+        if (!visiting.add(type)) return false;
+
+        try {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                if (!isAcyclic(field.getType(), visiting)) return false;
+            }
+
+            for (Method method : type.getDeclaredMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) continue;
+                if (method.getReturnType() != void.class && !isAcyclic(method.getReturnType(), visiting)) return false;
+            }
+
+            return true;
+        } finally {
+            visiting.remove(type);
+        }
+    }
+
+}
@@ -2,8 +2,15 @@ package com.guichaguri.fastbean;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Guichaguri
@@ -11,6 +18,20 @@ import java.lang.reflect.Modifier;
 public class FastBean {
 
     private static final BeanClassLoader classLoader = new BeanClassLoader();
+    private static final int DEFAULT_TIER_THRESHOLD = 1000;
+
+    // Reads the annotations when there's no name resolver, the default names are resolved by addMethod and addField
+    private static final INameResolver DEFAULT_RESOLVER = new INameResolver() {
+        @Override
+        public String getName(Method method, boolean setter) {
+            return null;
+        }
+
+        @Override
+        public String getName(Field field) {
+            return null;
+        }
+    };
 
     /**
      * Creates a {@link Bean} class based on the {@code clazz} parameter
@@ -30,19 +51,104 @@ public class FastBean {
      * @return The generated {@link Bean}
      */
     public static <T> Bean<T> compile(Class<T> clazz, INameResolver resolver) {
+        return compile(clazz, resolver, null);
+    }
+
+    /**
+     * Creates a {@link Bean} class based on the {@code clazz} parameter, reusing existing interners
+     * @param clazz The base class
+     * @param resolver The name resolver
+     * @param interners The interners mapped by property name or {@code null} to create new ones
+     * @param <T> The base class type
+     * @return The generated {@link Bean}
+     */
+    static <T> Bean<T> compile(Class<T> clazz, INameResolver resolver, Map<String, StringInterner> interners) {
         try {
-            String className = clazz.getName() + "Bean";
+            String className = classLoader.reserveName(clazz.getName() + "Bean");
 
             byte[] bytes = compileClass(clazz, className, resolver);
             Class<?> beanClass = classLoader.loadClass(className, bytes);
 
-            return (Bean<T>) beanClass.newInstance();
+            return (Bean<T>) beanClass.getConstructor(Map.class).newInstance(interners);
         } catch(Exception ex) {
             // Should never be thrown
             throw new RuntimeException(ex);
         }
     }
 
+    /**
+     * Creates a {@link Bean} that is ready to use immediately and gets compiled in the background once it's used enough.
+     * See {@link #compileTiered(Class, INameResolver, int, Executor)}
+     * @param clazz The base class
+     * @param <T> The base class type
+     * @return The tiered {@link Bean}
+     */
+    public static <T> Bean<T> compileTiered(Class<T> clazz) {
+        return compileTiered(clazz, null);
+    }
+
+    /**
+     * Creates a {@link Bean} that is ready to use immediately and gets compiled in the background once it's used enough.
+     * See {@link #compileTiered(Class, INameResolver, int, Executor)}
+     * @param clazz The base class
+     * @param resolver The name resolver
+     * @param <T> The base class type
+     * @return The tiered {@link Bean}
+     */
+    public static <T> Bean<T> compileTiered(Class<T> clazz, INameResolver resolver) {
+        return compileTiered(clazz, resolver, DEFAULT_TIER_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a {@link Bean} that is ready to use immediately and gets compiled in the background once it's used enough.
+     *
+     * The returned bean starts backed by method handles, which skips the bytecode generation for rarely used classes.
+     * After {@code threshold} calls, the compilation is submitted to the executor and
+     * the compiled bean transparently replaces the method handles once it's ready.
+     * Classes that map non-public members through the resolver keep using the method handles,
+     * as the compiled bean can't access those members.
+     *
+     * @param clazz The base class
+     * @param resolver The name resolver
+     * @param threshold The amount of calls before compiling the bean
+     * @param executor The executor that will compile the bean
+     * @param <T> The base class type
+     * @return The tiered {@link Bean}
+     */
+    public static <T> Bean<T> compileTiered(Class<T> clazz, INameResolver resolver, int threshold, Executor executor) {
+        ReflectiveBean<T> bean = new ReflectiveBean<>(findConstructor(clazz.getDeclaredConstructors()));
+
+        addProperties(bean, clazz, resolver);
+
+        // The compiled bean can only replace the method handles when it can access every member
+        boolean swappable = Modifier.isPublic(clazz.getModifiers()) && bean.isAccessible();
+
+        // The compiled bean takes over the interners, so the statistics are kept after the swap
+        return new TieredBean<>(bean, () -> compile(clazz, resolver, bean.getInterners()), swappable, threshold, executor);
+    }
+
+    /**
+     * Generates a record class with a public field for each property of the schema.
+     *
+     * Primitive properties are stored as primitive fields, taking as much memory as a regular POJO.
+     * Every call generates a new class, so the returned {@link Bean} should be reused for the same schema.
+     *
+     * @param schema The record schema
+     * @return The {@link Bean} of the generated class
+     */
+    @SuppressWarnings("unchecked")
+    public static Bean<Object> defineRecord(RecordSchema schema) {
+        String className = classLoader.reserveName(schema.getName());
+
+        RecordCompiler compiler = new RecordCompiler(className);
+        compiler.addProperties(schema);
+
+        byte[] bytes = compiler.compile();
+        Class<?> recordClass = classLoader.loadClass(className, bytes);
+
+        return (Bean<Object>) compile(recordClass);
+    }
+
     /**
      * Creates a {@link Bean} class based on the {@code clazz} parameter
      * @param clazz The base class
@@ -63,25 +169,71 @@ public class FastBean {
     public static byte[] compileClass(Class<?> clazz, String className, INameResolver resolver) {
         BeanCompiler compiler = new BeanCompiler(clazz, className);
 
-        addConstructor(compiler, clazz.getDeclaredConstructors());
+        compiler.generateCreateMethod(findConstructor(clazz.getDeclaredConstructors()));
+
+        addProperties(compiler, clazz, resolver);
+
+        return compiler.compile();
+    }
+
+    /**
+     * Checks whether instances of the class can be copied property by property without losing any state.
+     *
+     * That requires a public no-args constructor and a writer with the same type for every readable property.
+     *
+     * @param clazz The class
+     * @return Whether the class can be copied
+     */
+    static boolean isCopyable(Class<?> clazz) {
+        if (!Modifier.isPublic(clazz.getModifiers())) return false;
+
+        Constructor<?> constructor = findConstructor(clazz.getDeclaredConstructors());
+        if (constructor == null || constructor.getParameterCount() != 0) return false;
+        if (!Modifier.isPublic(constructor.getModifiers())) return false;
+
+        PropertyTypes properties = new PropertyTypes();
+        addProperties(properties, clazz, null);
+
+        if (properties.readers.isEmpty()) return false;
 
+        for (Map.Entry<String, Class<?>> reader : properties.readers.entrySet()) {
+            if (properties.writers.get(reader.getKey()) != reader.getValue()) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether a generated class can access the member, which requires a public member of a public class
+     * @param member The field, method or constructor
+     * @return Whether the member is accessible
+     */
+    static boolean isAccessible(Member member) {
+        return Modifier.isPublic(member.getModifiers()) && Modifier.isPublic(member.getDeclaringClass().getModifiers());
+    }
+
+    /**
+     * Adds all methods and fields of the class as properties to the builder
+     * @param builder The builder
+     * @param clazz The base class
+     * @param resolver The name resolver
+     */
+    private static void addProperties(BeanBuilder builder, Class<?> clazz, INameResolver resolver) {
         for (Method method : clazz.getDeclaredMethods()) {
-            addMethod(compiler, resolver, method);
+            addMethod(builder, resolver, method);
         }
 
         for(Field field : clazz.getDeclaredFields()) {
-            addField(compiler, resolver, field);
+            addField(builder, resolver, field);
         }
-
-        return compiler.compile();
     }
 
     /**
-     * Adds the constructor with the lowest amount of parameters as the default constructor for the create() method
-     * @param compiler The compiler
+     * Finds the constructor with the lowest amount of parameters to be the default constructor for the create() method
      * @param constructors The list of possible constructors
+     * @return The constructor or {@code null} if there are none
      */
-    private static void addConstructor(BeanCompiler compiler, Constructor<?>[] constructors) {
+    private static Constructor<?> findConstructor(Constructor<?>[] constructors) {
         Constructor<?> baseConstructor = null;
         int params = Integer.MAX_VALUE;
 
@@ -94,16 +246,16 @@ public class FastBean {
             }
         }
 
-        compiler.generateCreateMethod(baseConstructor);
+        return baseConstructor;
     }
 
     /**
-     * Adds a method as a getter or setter to the compiler
-     * @param compiler The compiler
+     * Adds a method as a getter or setter to the builder
+     * @param builder The builder
      * @param resolver The name resolver
      * @param method The method
      */
-    private static void addMethod(BeanCompiler compiler, INameResolver resolver, Method method) {
+    private static void addMethod(BeanBuilder builder, INameResolver resolver, Method method) {
         int modifiers = method.getModifiers();
 
         // Static methods are not allowed
@@ -151,18 +303,18 @@ public class FastBean {
         }
 
         if (setter)
-            compiler.addGetter(method.getParameterTypes()[0], name, method);
+            builder.addGetter(method.getParameterTypes()[0], name, method, getDeduplicationCapacity(resolver, method));
         else
-            compiler.addSetter(returnType, name, method);
+            builder.addSetter(returnType, name, method, getFormatMode(resolver, method));
     }
 
     /**
-     * Adds a field as a getter and setter to the compiler
-     * @param compiler The compiler
+     * Adds a field as a getter and setter to the builder
+     * @param builder The builder
      * @param resolver The name resolver
      * @param field The field
      */
-    private static void addField(BeanCompiler compiler, INameResolver resolver, Field field) {
+    private static void addField(BeanBuilder builder, INameResolver resolver, Field field) {
         int modifiers = field.getModifiers();
 
         // Static methods are not allowed
@@ -186,8 +338,28 @@ public class FastBean {
 
         }
 
-        compiler.addGetter(type, name, field);
-        compiler.addSetter(type, name, field);
+        builder.addGetter(type, name, field, getDeduplicationCapacity(resolver, field));
+        builder.addSetter(type, name, field, getFormatMode(resolver, field));
+    }
+
+    /**
+     * Gets how many distinct values of a property will be deduplicated
+     * @param resolver The name resolver
+     * @param member The field or setter method
+     * @return The interner capacity or {@code 0} to not deduplicate the values
+     */
+    private static int getDeduplicationCapacity(INameResolver resolver, Member member) {
+        return (resolver == null ? DEFAULT_RESOLVER : resolver).getDeduplicationCapacity(member);
+    }
+
+    /**
+     * Gets how a property is shown when formatted
+     * @param resolver The name resolver
+     * @param member The field or getter method
+     * @return The format mode
+     */
+    private static FormatMode getFormatMode(INameResolver resolver, Member member) {
+        return (resolver == null ? DEFAULT_RESOLVER : resolver).getFormatMode(member);
     }
 
     /**
@@ -200,11 +372,48 @@ public class FastBean {
         return name.substring(start, start + 1).toLowerCase() + name.substring(start + 1);
     }
 
+    /**
+     * Collects the property types of a class
+     */
+    private static class PropertyTypes implements BeanBuilder {
+
+        private final Map<String, Class<?>> writers = new HashMap<>();
+        private final Map<String, Class<?>> readers = new HashMap<>();
+
+        @Override
+        public void addGetter(Class<?> type, String name, Member member, int internCapacity) {
+            writers.putIfAbsent(name, type);
+        }
+
+        @Override
+        public void addSetter(Class<?> type, String name, Member member, FormatMode format) {
+            readers.putIfAbsent(name, type);
+        }
+
+    }
+
     /**
      * A custom class loader that allows loading raw byte arrays as classes
      */
     private static class BeanClassLoader extends ClassLoader {
 
+        private final Set<String> names = new HashSet<>();
+
+        /**
+         * Reserves a class name that is not used yet, as the same class can be compiled more than once
+         * @param name The preferred class name
+         * @return The reserved class name
+         */
+        private synchronized String reserveName(String name) {
+            String className = name;
+
+            for (int i = 2; !names.add(className); i++) {
+                className = name + i;
+            }
+
+            return className;
+        }
+
         private Class<?> loadClass(String className, byte[] bytes) {
             return defineClass(className, bytes, 0, bytes.length);
         }
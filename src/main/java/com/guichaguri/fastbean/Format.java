@@ -0,0 +1,24 @@
+package com.guichaguri.fastbean;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Changes how a field or getter is shown when a POJO instance is formatted
+ *
+ * @author Guichaguri
+ * @see Bean#appendTo(Object, StringBuilder)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Format {
+
+    /**
+     * How the property is shown
+     * @return The format mode
+     */
+    FormatMode value();
+
+}
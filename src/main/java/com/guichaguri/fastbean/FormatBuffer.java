@@ -0,0 +1,38 @@
+package com.guichaguri.fastbean;
+
+/**
+ * Reuses a {@link StringBuilder} per thread for formatting
+ *
+ * @author Guichaguri
+ */
+final class FormatBuffer {
+
+    // Builders that grew larger than this are not kept
+    private static final int MAX_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private FormatBuffer() {}
+
+    /**
+     * Takes the builder of the current thread, or creates a new one if it's already in use
+     * @return An empty builder
+     */
+    static StringBuilder acquire() {
+        StringBuilder builder = BUFFER.get();
+        if (builder == null) return new StringBuilder(256);
+
+        BUFFER.set(null);
+        builder.setLength(0);
+        return builder;
+    }
+
+    /**
+     * Gives the builder back to the current thread
+     * @param builder The builder
+     */
+    static void release(StringBuilder builder) {
+        if (builder.capacity() <= MAX_CAPACITY) BUFFER.set(builder);
+    }
+
+}
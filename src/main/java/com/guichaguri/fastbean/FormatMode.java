@@ -0,0 +1,26 @@
+package com.guichaguri.fastbean;
+
+/**
+ * How a property is shown when a POJO instance is formatted
+ *
+ * @author Guichaguri
+ * @see Bean#appendTo(Object, StringBuilder)
+ */
+public enum FormatMode {
+
+    /**
+     * The property name and value are shown
+     */
+    VISIBLE,
+
+    /**
+     * The property name is shown, but the value is replaced with asterisks
+     */
+    MASKED,
+
+    /**
+     * The property is not shown
+     */
+    HIDDEN
+
+}
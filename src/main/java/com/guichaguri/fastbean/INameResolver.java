@@ -1,6 +1,8 @@
 package com.guichaguri.fastbean;
 
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 
 /**
@@ -25,4 +27,26 @@ public interface INameResolver {
      */
     String getName(Field field);
 
+    /**
+     * Retrieves how many distinct values of a String property will be deduplicated when filling.
+     * By default, it reads the {@link Deduplicate} annotation.
+     * @param member The field or setter method
+     * @return The interner capacity or {@code 0} to not deduplicate the values
+     */
+    default int getDeduplicationCapacity(Member member) {
+        Deduplicate deduplicate = ((AnnotatedElement) member).getAnnotation(Deduplicate.class);
+        return deduplicate == null ? 0 : deduplicate.capacity();
+    }
+
+    /**
+     * Retrieves how a property is shown when formatted.
+     * By default, it reads the {@link Format} annotation.
+     * @param member The field or getter method
+     * @return The format mode
+     */
+    default FormatMode getFormatMode(Member member) {
+        Format format = ((AnnotatedElement) member).getAnnotation(Format.class);
+        return format == null ? FormatMode.VISIBLE : format.value();
+    }
+
 }
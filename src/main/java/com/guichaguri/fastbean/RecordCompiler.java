@@ -0,0 +1,69 @@
+package com.guichaguri.fastbean;
+
+import java.util.Map;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates a POJO class with a public field for each property of a {@link RecordSchema}
+ *
+ * @author Guichaguri
+ */
+public class RecordCompiler {
+
+    private static final Type OBJECT = Type.getType(Object.class);
+
+    private ClassWriter cw;
+
+    private Type type;
+
+    public RecordCompiler(String className) {
+        cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        String internalName = className.replace('.', '/');
+        type = Type.getObjectType(internalName);
+
+        cw.visit(52, ACC_PUBLIC + ACC_SUPER, internalName, null, OBJECT.getInternalName(), null);
+
+        cw.visitSource(className, null);
+
+        generateConstructor();
+    }
+
+    public byte[] compile() {
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private void generateConstructor() {
+        Label start = new Label();
+        Label end = new Label();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, OBJECT.getInternalName(), "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(end);
+
+        mv.visitLocalVariable("this", type.getDescriptor(), null, start, end, 0);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+    }
+
+    public void addProperty(Class<?> type, String name) {
+        cw.visitField(ACC_PUBLIC, name, Type.getDescriptor(type), null, null).visitEnd();
+    }
+
+    public void addProperties(RecordSchema schema) {
+        for (Map.Entry<String, Class<?>> property : schema.getProperties().entrySet()) {
+            addProperty(property.getValue(), property.getKey());
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.guichaguri.fastbean;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Describes the properties of a record class that will be generated at runtime
+ *
+ * @author Guichaguri
+ * @see FastBean#defineRecord(RecordSchema)
+ */
+public class RecordSchema {
+
+    private final String name;
+    private final Map<String, Class<?>> properties = new LinkedHashMap<>();
+
+    /**
+     * Creates a schema for a record with a generated class name
+     */
+    public RecordSchema() {
+        this("com.guichaguri.fastbean.Record");
+    }
+
+    /**
+     * Creates a schema for a record
+     * @param name The preferred class name, a number is appended to it when it's already in use
+     */
+    public RecordSchema(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a property, which will be generated as a public field
+     * @param name The property name, must be a valid Java identifier
+     * @param type The property type
+     * @return This schema
+     */
+    public RecordSchema add(String name, Class<?> type) {
+        if (!isIdentifier(name)) {
+            throw new IllegalArgumentException("Invalid property name: " + name);
+        }
+        if (type == void.class) {
+            throw new IllegalArgumentException("Invalid property type for " + name);
+        }
+        if (properties.putIfAbsent(name, type) != null) {
+            throw new IllegalArgumentException("Duplicate property: " + name);
+        }
+
+        return this;
+    }
+
+    /**
+     * Gets the preferred class name
+     * @return The class name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the properties in the order they were added
+     * @return The property types mapped by name
+     */
+    public Map<String, Class<?>> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    private static boolean isIdentifier(String name) {
+        if (name == null || name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) return false;
+
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) return false;
+        }
+
+        return true;
+    }
+
+}
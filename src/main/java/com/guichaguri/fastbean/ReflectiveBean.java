@@ -0,0 +1,237 @@
+package com.guichaguri.fastbean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bean backed by cached method handles.
+ *
+ * It's slower than a compiled bean, but it's ready to use without generating any bytecode.
+ * Only creating, filling and extracting are supported.
+ *
+ * @author Guichaguri
+ */
+class ReflectiveBean<T> implements SimpleBean<T>, BeanBuilder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final MethodHandle constructor;
+    private final List<Property> getters = new ArrayList<>();
+    private final List<Property> setters = new ArrayList<>();
+    private final Map<String, StringInterner> interners = new LinkedHashMap<>();
+
+    private boolean accessible;
+
+    ReflectiveBean(Constructor<?> constructor) {
+        this.constructor = constructor == null ? null : createConstructor(constructor);
+        this.accessible = constructor == null || FastBean.isAccessible(constructor);
+    }
+
+    /**
+     * Checks whether a generated class can access the constructor and every mapped member
+     * @return Whether all of them are public members of public classes
+     */
+    boolean isAccessible() {
+        return accessible;
+    }
+
+    private static MethodHandle createConstructor(Constructor<?> constructor) {
+        try {
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+            Class<?>[] types = constructor.getParameterTypes();
+
+            // Sets all parameters to the default value (0, false, null)
+            for (int i = types.length - 1; i >= 0; i--) {
+                Object value = types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : null;
+                handle = MethodHandles.insertArguments(handle, i, value);
+            }
+
+            return handle.asType(MethodType.methodType(Object.class));
+        } catch(Throwable ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static Class<?> toHandleType(Class<?> type) {
+        return type.isPrimitive() ? type : Object.class;
+    }
+
+    @Override
+    public void addGetter(Class<?> type, String name, Member member, int internCapacity) {
+        MethodHandle handle;
+
+        accessible &= FastBean.isAccessible(member);
+
+        try {
+            if (member instanceof Field) {
+                handle = LOOKUP.unreflectSetter((Field) member);
+            } else if (member instanceof Method) {
+                handle = LOOKUP.unreflect((Method) member);
+            } else {
+                throw new RuntimeException("Unknown member type");
+            }
+        } catch(IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+
+        // The return value of setter methods is discarded
+        handle = handle.asType(MethodType.methodType(void.class, Object.class, toHandleType(type)));
+
+        StringInterner interner = null;
+
+        if (type == String.class && internCapacity > 0) {
+            interner = interners.computeIfAbsent(name, n -> new StringInterner(internCapacity));
+        }
+
+        getters.add(new Property(type, name, handle, interner));
+    }
+
+    @Override
+    public void addSetter(Class<?> type, String name, Member member, FormatMode format) {
+        MethodHandle handle;
+
+        accessible &= FastBean.isAccessible(member);
+
+        try {
+            if (member instanceof Field) {
+                handle = LOOKUP.unreflectGetter((Field) member);
+            } else if (member instanceof Method) {
+                handle = LOOKUP.unreflect((Method) member);
+            } else {
+                throw new RuntimeException("Unknown member type");
+            }
+        } catch(IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+
+        handle = handle.asType(MethodType.methodType(toHandleType(type), Object.class));
+
+        setters.add(new Property(type, name, handle, null));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T create() {
+        if (constructor == null) return null;
+
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch(RuntimeException | Error ex) {
+            throw ex;
+        } catch(Throwable ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public void fill(T instance, IPropertyGetter getter) {
+        Object obj = instance;
+
+        try {
+            for (Property p : getters) {
+                MethodHandle h = p.handle;
+                Class<?> type = p.type;
+
+                if (type == int.class) {
+                    h.invokeExact(obj, getter.getInt(p.name));
+                } else if (type == short.class) {
+                    h.invokeExact(obj, getter.getShort(p.name));
+                } else if (type == long.class) {
+                    h.invokeExact(obj, getter.getLong(p.name));
+                } else if (type == double.class) {
+                    h.invokeExact(obj, getter.getDouble(p.name));
+                } else if (type == float.class) {
+                    h.invokeExact(obj, getter.getFloat(p.name));
+                } else if (type == byte.class) {
+                    h.invokeExact(obj, getter.getByte(p.name));
+                } else if (type == boolean.class) {
+                    h.invokeExact(obj, getter.getBoolean(p.name));
+                } else if (type == char.class) {
+                    h.invokeExact(obj, getter.getChar(p.name));
+                } else if (type == String.class) {
+                    String value = getter.getString(p.name);
+                    if (p.interner != null) value = p.interner.intern(value);
+
+                    h.invokeExact(obj, (Object) value);
+                } else {
+                    h.invokeExact(obj, getter.getObject(p.name));
+                }
+            }
+        } catch(RuntimeException | Error ex) {
+            throw ex;
+        } catch(Throwable ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public void extract(T instance, IPropertySetter setter) {
+        Object obj = instance;
+
+        try {
+            for (Property p : setters) {
+                MethodHandle h = p.handle;
+                Class<?> type = p.type;
+
+                if (type == int.class) {
+                    setter.setInt(p.name, (int) h.invokeExact(obj));
+                } else if (type == short.class) {
+                    setter.setShort(p.name, (short) h.invokeExact(obj));
+                } else if (type == long.class) {
+                    setter.setLong(p.name, (long) h.invokeExact(obj));
+                } else if (type == double.class) {
+                    setter.setDouble(p.name, (double) h.invokeExact(obj));
+                } else if (type == float.class) {
+                    setter.setFloat(p.name, (float) h.invokeExact(obj));
+                } else if (type == byte.class) {
+                    setter.setByte(p.name, (byte) h.invokeExact(obj));
+                } else if (type == boolean.class) {
+                    setter.setBoolean(p.name, (boolean) h.invokeExact(obj));
+                } else if (type == char.class) {
+                    setter.setChar(p.name, (char) h.invokeExact(obj));
+                } else if (type == String.class) {
+                    setter.setString(p.name, (String) (Object) h.invokeExact(obj));
+                } else {
+                    setter.setObject(p.name, (Object) h.invokeExact(obj));
+                }
+            }
+        } catch(RuntimeException | Error ex) {
+            throw ex;
+        } catch(Throwable ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public Map<String, StringInterner> getInterners() {
+        return Collections.unmodifiableMap(interners);
+    }
+
+    private static class Property {
+
+        private final Class<?> type;
+        private final String name;
+        private final MethodHandle handle;
+        private final StringInterner interner;
+
+        private Property(Class<?> type, String name, MethodHandle handle, StringInterner interner) {
+            this.type = type;
+            this.name = name;
+            this.handle = handle;
+            this.interner = interner;
+        }
+
+    }
+
+}
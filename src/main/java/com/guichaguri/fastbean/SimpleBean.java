@@ -0,0 +1,38 @@
+package com.guichaguri.fastbean;
+
+import java.util.Map;
+
+/**
+ * The basic operations of a bean, which can be served without generating any bytecode
+ *
+ * @author Guichaguri
+ */
+interface SimpleBean<T> {
+
+    /**
+     * Creates a new class instance
+     * @return The instance
+     */
+    T create();
+
+    /**
+     * Fills the POJO instance properties using the getter
+     * @param instance The instance
+     * @param getter The data provider
+     */
+    void fill(T instance, IPropertyGetter getter);
+
+    /**
+     * Extracts data from the POJO instance properties
+     * @param instance The instance
+     * @param setter The data receiver
+     */
+    void extract(T instance, IPropertySetter setter);
+
+    /**
+     * Gets the interners of the deduplicated String properties
+     * @return The interners mapped by property name
+     */
+    Map<String, StringInterner> getInterners();
+
+}
@@ -0,0 +1,89 @@
+package com.guichaguri.fastbean;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded and lock-free String cache that collapses equal strings into a single instance.
+ *
+ * Each string can only be stored in one slot, a new string evicts the previous one when they share the slot.
+ *
+ * @author Guichaguri
+ */
+public class StringInterner {
+
+    private final String[] table;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an interner
+     * @param capacity The maximum amount of strings, rounded up to a power of two
+     */
+    public StringInterner(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+
+        this.table = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Gets the cached string equal to the value, caching the value if there's none.
+     * @param value The string
+     * @return The cached instance
+     */
+    public String intern(String value) {
+        if (value == null) return null;
+
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+
+        // Strings are immutable, so racing reads and writes are safe
+        String cached = table[index];
+
+        if (cached != null && cached.equals(value)) {
+            hits.increment();
+            return cached;
+        }
+
+        table[index] = value;
+        misses.increment();
+        return value;
+    }
+
+    /**
+     * Gets the amount of strings that were replaced by a cached instance
+     * @return The amount of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the amount of strings that were not found in the cache
+     * @return The amount of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the maximum amount of strings
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return table.length;
+    }
+
+    @Override
+    public String toString() {
+        return "StringInterner{hits=" + getHits() + ", misses=" + getMisses() + ", capacity=" + getCapacity() + "}";
+    }
+
+}
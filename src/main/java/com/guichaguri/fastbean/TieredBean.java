@@ -0,0 +1,254 @@
+package com.guichaguri.fastbean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link Bean} that starts as a {@link ReflectiveBean} and is upgraded to a compiled bean once it's used enough.
+ *
+ * The compilation runs in the background, calls keep being served by the reflective bean until it's done.
+ * Operations that are only supported by compiled beans compile it right away.
+ *
+ * If the compilation fails, the bean stays reflective for good: creating, filling and extracting keep working,
+ * while the other operations throw a {@link RuntimeException} caused by the original failure.
+ *
+ * Beans that map members the generated class can't access (e.g. private fields mapped by a name resolver)
+ * are never swapped, as the compiled bean would throw an {@link IllegalAccessError} on every call.
+ *
+ * @author Guichaguri
+ */
+class TieredBean<T> implements Bean<T> {
+
+    private final SimpleBean<T> reflective;
+    private final boolean swappable;
+    private final int threshold;
+    private final Executor executor;
+    private final Compilation compilation;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private volatile Bean<T> compiled;
+    private volatile Throwable failure;
+
+    // Not synchronized, a few lost increments only delay the upgrade
+    private int invocations;
+
+    /**
+     * Creates a tiered bean
+     * @param reflective The bean that serves the calls until the compiled bean is ready
+     * @param compiler Compiles the bean
+     * @param swappable Whether the compiled bean can replace the reflective bean
+     * @param threshold The amount of calls before compiling the bean
+     * @param executor The executor that will compile the bean
+     */
+    TieredBean(SimpleBean<T> reflective, Callable<Bean<T>> compiler, boolean swappable, int threshold, Executor executor) {
+        this.reflective = reflective;
+        this.swappable = swappable;
+        this.threshold = threshold;
+        this.executor = executor;
+        this.compilation = new Compilation(compiler);
+
+        if (!swappable) {
+            scheduled.set(true); // Nothing to schedule, the reflective bean serves the calls for good
+        } else if (threshold <= 0) {
+            schedule();
+        }
+    }
+
+    /**
+     * Gets the reflective implementation, scheduling the compilation when the threshold is reached
+     * @return The reflective bean
+     */
+    private SimpleBean<T> reflective() {
+        // Stops counting once it's scheduled, so the calls don't keep writing to shared fields
+        if (!scheduled.get() && ++invocations >= threshold) schedule();
+        return reflective;
+    }
+
+    /**
+     * Checks whether the calls are being served by the compiled bean
+     * @return Whether the compiled bean was swapped in
+     */
+    boolean isCompiled() {
+        return compiled != null;
+    }
+
+    private void schedule() {
+        if (scheduled.get() || !scheduled.compareAndSet(false, true)) return;
+
+        try {
+            executor.execute(compilation);
+        } catch(RejectedExecutionException ex) {
+            // We'll keep using the reflective bean
+        }
+    }
+
+    /**
+     * Gets the compiled bean, compiling it in the current thread if it's not done yet
+     * @return The compiled bean
+     * @throws RuntimeException When the compilation failed, caused by the original failure
+     */
+    Bean<T> compiled() {
+        Bean<T> bean = compiled;
+        if (bean != null) return bean;
+        if (failure != null) throw compilationFailed(failure);
+
+        if (!scheduled.get()) scheduled.set(true);
+        compilation.run(); // Does nothing when it's already running or done
+
+        try {
+            return compilation.get();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch(ExecutionException ex) {
+            throw compilationFailed(ex.getCause());
+        }
+    }
+
+    private static RuntimeException compilationFailed(Throwable cause) {
+        return new RuntimeException("The bean could not be compiled", cause);
+    }
+
+    @Override
+    public T create() {
+        Bean<T> bean = compiled;
+        return bean != null ? bean.create() : reflective().create();
+    }
+
+    @Override
+    public void fill(T instance, IPropertyGetter getter) {
+        Bean<T> bean = compiled;
+
+        if (bean != null) {
+            bean.fill(instance, getter);
+        } else {
+            reflective().fill(instance, getter);
+        }
+    }
+
+    @Override
+    public void extract(T instance, IPropertySetter setter) {
+        Bean<T> bean = compiled;
+
+        if (bean != null) {
+            bean.extract(instance, setter);
+        } else {
+            reflective().extract(instance, setter);
+        }
+    }
+
+    /**
+     * Gets the interners, which are shared by the reflective and the compiled beans
+     * @return The interners mapped by property name
+     */
+    @Override
+    public Map<String, StringInterner> getInterners() {
+        Bean<T> bean = compiled;
+        return bean != null ? bean.getInterners() : reflective.getInterners();
+    }
+
+    @Override
+    public void copyInto(T source, T target) {
+        compiled().copyInto(source, target);
+    }
+
+    @Override
+    public T deepCopy(T instance) {
+        return compiled().deepCopy(instance);
+    }
+
+    @Override
+    public void deepCopyInto(T source, T target, Map<Object, Object> copies) {
+        compiled().deepCopyInto(source, target, copies);
+    }
+
+    @Override
+    public BeanColumns toColumns(List<T> instances) {
+        return compiled().toColumns(instances);
+    }
+
+    @Override
+    public List<T> fromColumns(BeanColumns columns) {
+        return compiled().fromColumns(columns);
+    }
+
+    @Override
+    public void appendTo(T instance, StringBuilder builder) {
+        compiled().appendTo(instance, builder);
+    }
+
+    @Override
+    public int getAtomicIndex(String property) {
+        return compiled().getAtomicIndex(property);
+    }
+
+    @Override
+    public boolean compareAndSetInt(T instance, int index, int expect, int update) {
+        return compiled().compareAndSetInt(instance, index, expect, update);
+    }
+
+    @Override
+    public boolean compareAndSetLong(T instance, int index, long expect, long update) {
+        return compiled().compareAndSetLong(instance, index, expect, update);
+    }
+
+    @Override
+    public boolean compareAndSetObject(T instance, int index, Object expect, Object update) {
+        return compiled().compareAndSetObject(instance, index, expect, update);
+    }
+
+    @Override
+    public int getAndAddInt(T instance, int index, int delta) {
+        return compiled().getAndAddInt(instance, index, delta);
+    }
+
+    @Override
+    public long getAndAddLong(T instance, int index, long delta) {
+        return compiled().getAndAddLong(instance, index, delta);
+    }
+
+    @Override
+    public void lazySetInt(T instance, int index, int value) {
+        compiled().lazySetInt(instance, index, value);
+    }
+
+    @Override
+    public void lazySetLong(T instance, int index, long value) {
+        compiled().lazySetLong(instance, index, value);
+    }
+
+    @Override
+    public void lazySetObject(T instance, int index, Object value) {
+        compiled().lazySetObject(instance, index, value);
+    }
+
+    /**
+     * Compiles the bean and swaps it in once it's done
+     */
+    private class Compilation extends FutureTask<Bean<T>> {
+
+        private Compilation(Callable<Bean<T>> compiler) {
+            super(compiler);
+        }
+
+        @Override
+        protected void set(Bean<T> bean) {
+            if (swappable) compiled = bean;
+            super.set(bean);
+        }
+
+        @Override
+        protected void setException(Throwable ex) {
+            failure = ex;
+            super.setException(ex);
+        }
+
+    }
+
+}
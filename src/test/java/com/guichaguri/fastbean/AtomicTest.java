@@ -0,0 +1,125 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class AtomicTest {
+
+    private final Bean<Stats> bean = FastBean.compile(Stats.class);
+
+    @Test
+    public void testIndexes() {
+        assertTrue(bean.getAtomicIndex("hits") >= 0);
+        assertTrue(bean.getAtomicIndex("total") >= 0);
+        assertTrue(bean.getAtomicIndex("state") >= 0);
+
+        assertEquals(-1, bean.getAtomicIndex("plain"));
+        assertEquals(-1, bean.getAtomicIndex("small"));
+        assertEquals(-1, bean.getAtomicIndex("missing"));
+    }
+
+    @Test
+    public void testNonPublicFields() {
+        INameResolver resolver = new INameResolver() {
+            @Override
+            public String getName(Method method, boolean setter) {
+                return null;
+            }
+
+            @Override
+            public String getName(Field field) {
+                return field.getName();
+            }
+        };
+
+        Bean<Hidden> hidden = FastBean.compile(Hidden.class, resolver);
+
+        assertEquals(-1, hidden.getAtomicIndex("secret"));
+        assertEquals(-1, hidden.getAtomicIndex("local"));
+        assertTrue(hidden.getAtomicIndex("shared") >= 0);
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        Stats stats = new Stats();
+        int hits = bean.getAtomicIndex("hits");
+        int total = bean.getAtomicIndex("total");
+        int state = bean.getAtomicIndex("state");
+
+        assertTrue(bean.compareAndSetInt(stats, hits, 0, 5));
+        assertFalse(bean.compareAndSetInt(stats, hits, 0, 6));
+        assertEquals(5, stats.hits);
+
+        assertTrue(bean.compareAndSetLong(stats, total, 0, 7));
+        assertEquals(7, stats.total);
+
+        assertTrue(bean.compareAndSetObject(stats, state, "idle", "busy"));
+        assertFalse(bean.compareAndSetObject(stats, state, "idle", "done"));
+        assertEquals("busy", stats.state);
+
+        bean.lazySetInt(stats, hits, 1);
+        bean.lazySetLong(stats, total, 2);
+        bean.lazySetObject(stats, state, "idle");
+
+        assertEquals(1, stats.hits);
+        assertEquals(2, stats.total);
+        assertEquals("idle", stats.state);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        bean.compareAndSetInt(new Stats(), bean.getAtomicIndex("total"), 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownIndex() {
+        bean.getAndAddLong(new Stats(), 100, 1);
+    }
+
+    @Test
+    public void testContention() throws InterruptedException {
+        Stats stats = new Stats();
+        int hits = bean.getAtomicIndex("hits");
+        int total = bean.getAtomicIndex("total");
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    bean.getAndAddInt(stats, hits, 1);
+                    bean.getAndAddLong(stats, total, 2);
+                }
+            });
+
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(40000, stats.hits);
+        assertEquals(80000, stats.total);
+    }
+
+    public static class Stats {
+        public volatile int hits;
+        public volatile long total;
+        public volatile String state = "idle";
+        public int plain;
+        public volatile short small;
+    }
+
+    public static class Hidden {
+        private volatile int secret;
+        volatile long local;
+        public volatile int shared;
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class BeanColumnsTest {
+
+    private final Bean<User> bean = FastBean.compile(User.class);
+
+    private static List<User> createUsers() {
+        List<User> users = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setAge(20 + i);
+            user.score = i * 1.5;
+            user.active = i % 2 == 0;
+            user.initial = (char) ('a' + i);
+            user.country = i == 3 ? null : (i % 2 == 0 ? "BR" : "US");
+            user.tags = Arrays.asList("t" + i);
+            users.add(user);
+        }
+
+        return users;
+    }
+
+    @Test
+    public void testToColumns() {
+        BeanColumns columns = bean.toColumns(createUsers());
+
+        assertEquals(5, columns.size());
+        assertArrayEquals(new int[]{20, 21, 22, 23, 24}, columns.getInts("age"));
+        assertArrayEquals(new double[]{0, 1.5, 3, 4.5, 6}, columns.getDoubles("score"), 0);
+        assertArrayEquals(new boolean[]{true, false, true, false, true}, columns.getBooleans("active"));
+        assertArrayEquals(new char[]{'a', 'b', 'c', 'd', 'e'}, columns.getChars("initial"));
+        assertEquals(Arrays.asList("t1"), columns.getObjects("tags")[1]);
+
+        BeanColumns.StringColumn country = columns.getStringColumn("country");
+
+        assertEquals(Arrays.asList("BR", "US"), country.getDictionary());
+        assertArrayEquals(new int[]{0, 1, 0, -1, 0}, country.getCodes());
+        assertArrayEquals(new String[]{"BR", "US", "BR", null, "BR"}, columns.getStrings("country"));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        List<User> users = createUsers();
+        List<User> copies = bean.fromColumns(bean.toColumns(users));
+
+        assertEquals(users.size(), copies.size());
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            User copy = copies.get(i);
+
+            assertEquals(user.getAge(), copy.getAge());
+            assertEquals(user.score, copy.score, 0);
+            assertEquals(user.active, copy.active);
+            assertEquals(user.initial, copy.initial);
+            assertEquals(user.country, copy.country);
+            assertEquals(user.tags, copy.tags);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        BeanColumns columns = bean.toColumns(new ArrayList<>());
+
+        assertEquals(0, columns.size());
+        assertEquals(0, bean.fromColumns(columns).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingColumns() {
+        BeanColumns columns = new BeanColumns(2);
+        columns.putColumn("age", new int[]{1, 2});
+
+        bean.fromColumns(columns);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongSize() {
+        new BeanColumns(2).putColumn("age", new int[3]);
+    }
+
+    public static class User {
+        private int age;
+        public double score;
+        public boolean active;
+        public char initial;
+        public String country;
+        public List<String> tags;
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class CopyTest {
+
+    private final Bean<Order> bean = FastBean.compile(Order.class);
+
+    private static Order createOrder() {
+        Order order = new Order();
+        order.setId(10);
+        order.address = new Address();
+        order.address.city = "Paris";
+        order.address.zips = new int[]{75001, 75002};
+        order.items = new ArrayList<>();
+        order.items.add(order.address);
+        order.tags = new HashMap<>();
+        order.tags.put("status", "open");
+        order.price = new Money(500, "USD");
+        order.zone = TimeZone.getTimeZone("UTC");
+        return order;
+    }
+
+    @Test
+    public void testCopy() {
+        Order order = createOrder();
+        Order copy = bean.copy(order);
+
+        assertNotSame(order, copy);
+        assertEquals(10, copy.getId());
+        assertSame(order.address, copy.address);
+        assertSame(order.items, copy.items);
+        assertSame(order.tags, copy.tags);
+    }
+
+    @Test
+    public void testDeepCopy() {
+        Order order = createOrder();
+        Order copy = bean.deepCopy(order);
+
+        assertEquals(10, copy.getId());
+
+        assertNotSame(order.address, copy.address);
+        assertEquals("Paris", copy.address.city);
+        assertNotSame(order.address.zips, copy.address.zips);
+        assertArrayEquals(order.address.zips, copy.address.zips);
+
+        assertNotSame(order.items, copy.items);
+        assertNotSame(order.address, copy.items.get(0));
+        assertNotSame(order.tags, copy.tags);
+        assertEquals(order.tags, copy.tags);
+    }
+
+    @Test
+    public void testValueClasses() {
+        Order order = createOrder();
+        Order copy = bean.deepCopy(order);
+
+        // Classes that can't be copied property by property are shared
+        assertSame(order.price, copy.price);
+        assertEquals(500, copy.price.getAmount());
+        assertEquals("USD", copy.price.getCurrency());
+        assertSame(order.zone, copy.zone);
+    }
+
+    @Test
+    public void testCycles() {
+        Order order = createOrder();
+        order.parent = order;
+
+        Order copy = bean.deepCopy(order);
+
+        assertSame(copy, copy.parent);
+        assertSame(copy.address, copy.items.get(0));
+    }
+
+    @Test
+    public void testTiered() {
+        Bean<Order> tiered = FastBean.compileTiered(Order.class);
+        Order order = createOrder();
+        Order copy = tiered.deepCopy(order);
+
+        assertEquals(10, copy.getId());
+        assertNotSame(order.address, copy.address);
+    }
+
+    @Test
+    public void testEnumCollections() {
+        Holder holder = new Holder();
+        holder.units = EnumSet.of(TimeUnit.SECONDS, TimeUnit.DAYS);
+        holder.names = new EnumMap<>(TimeUnit.class);
+        holder.names.put(TimeUnit.SECONDS, new Address());
+
+        Holder copy = FastBean.compile(Holder.class).deepCopy(holder);
+
+        assertNotSame(holder.units, copy.units);
+        assertEquals(holder.units, copy.units);
+        assertNotSame(holder.names, copy.names);
+        assertNotSame(holder.names.get(TimeUnit.SECONDS), copy.names.get(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSortedCollections() {
+        Holder holder = new Holder();
+        holder.skipList = new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+        holder.skipList.addAll(Arrays.asList("a", "b"));
+        holder.queue = new PriorityQueue<>(Comparator.reverseOrder());
+        holder.queue.addAll(Arrays.asList("a", "b"));
+
+        Holder copy = FastBean.compile(Holder.class).deepCopy(holder);
+
+        assertSame(ConcurrentSkipListSet.class, copy.skipList.getClass());
+        assertEquals("b", copy.skipList.first());
+        assertNotSame(holder.queue, copy.queue);
+        assertEquals("b", copy.queue.peek());
+    }
+
+    @Test
+    public void testCollectionSubclasses() {
+        Holder holder = new Holder();
+        holder.cache = new LruCache();
+        holder.cache.put("a", new Address());
+        holder.fixed = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(new Address())));
+
+        Holder copy = FastBean.compile(Holder.class).deepCopy(holder);
+
+        assertSame(LruCache.class, copy.cache.getClass());
+        assertNotSame(holder.cache, copy.cache);
+        assertNotSame(holder.cache.get("a"), copy.cache.get("a"));
+
+        // There's no way to create an instance of a private class, so it's kept
+        assertSame(holder.fixed, copy.fixed);
+    }
+
+    public static class Order {
+        private long id;
+        public Address address;
+        public List<Address> items;
+        public Map<String, String> tags;
+        public Money price;
+        public TimeZone zone;
+        public Order parent;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    public static class Holder {
+        public EnumSet<TimeUnit> units;
+        public EnumMap<TimeUnit, Address> names;
+        public ConcurrentSkipListSet<String> skipList;
+        public PriorityQueue<String> queue;
+        public LruCache cache;
+        public List<Address> fixed;
+    }
+
+    public static class LruCache extends LinkedHashMap<String, Address> {
+        public LruCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Address> eldest) {
+            return size() > 10;
+        }
+    }
+
+    public static final class Address {
+        public String city;
+        public int[] zips;
+    }
+
+    public static final class Money {
+        private final long amount;
+        private final String currency;
+
+        public Money(long amount, String currency) {
+            this.amount = amount;
+            this.currency = currency;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+    }
+
+}
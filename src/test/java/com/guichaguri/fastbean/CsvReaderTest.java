@@ -0,0 +1,169 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class CsvReaderTest {
+
+    private static final Bean<Row> BEAN = FastBean.compile(Row.class);
+
+    private List<Row> read(String csv) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+
+        new CsvReader<>(BEAN).read(Channels.newChannel(new ByteArrayInputStream(bytes)), rows::add);
+        return rows;
+    }
+
+    @Test
+    public void testQuoting() throws IOException {
+        List<Row> rows = read("name,age\n\"Doe, \"\"John\"\"\",20\n\"multi\nline\",21\n");
+
+        assertEquals(2, rows.size());
+        assertEquals("Doe, \"John\"", rows.get(0).name);
+        assertEquals(20, rows.get(0).age);
+        assertEquals("multi\nline", rows.get(1).name);
+        assertEquals(21, rows.get(1).age);
+    }
+
+    @Test
+    public void testLineEndings() throws IOException {
+        List<Row> rows = read("name,age\r\nJohn,20\r\nMark,30\rAnna,40");
+
+        assertEquals(3, rows.size());
+        assertEquals("John", rows.get(0).name);
+        assertEquals(30, rows.get(1).age);
+        assertEquals("Anna", rows.get(2).name);
+        assertEquals(40, rows.get(2).age);
+    }
+
+    @Test
+    public void testByteOrderMark() throws IOException {
+        List<Row> rows = read("\uFEFFname,age\nJohn,20\n");
+
+        assertEquals(1, rows.size());
+        assertEquals("John", rows.get(0).name);
+    }
+
+    @Test
+    public void testBlankLines() throws IOException {
+        List<Row> rows = read("name,age\n\nJohn,20\n\n\nMark,30\n\n");
+
+        assertEquals(2, rows.size());
+        assertEquals("Mark", rows.get(1).name);
+    }
+
+    @Test
+    public void testBufferGrowth() throws IOException {
+        String name = String.join("", Collections.nCopies(200 * 1024, "x"));
+        List<Row> rows = read("name,age\nJohn,20\n" + name + ",21\nMark,22\n");
+
+        assertEquals(3, rows.size());
+        assertEquals(name, rows.get(1).name);
+        assertEquals(21, rows.get(1).age);
+        assertEquals("Mark", rows.get(2).name);
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        List<Row> rows = read("big,score,ok,letter\n-9223372036854775808,1.5,true,a\n9223372036854775807,-2e3,0,\n");
+
+        assertEquals(Long.MIN_VALUE, rows.get(0).big);
+        assertEquals(1.5, rows.get(0).score, 0);
+        assertTrue(rows.get(0).ok);
+        assertEquals('a', rows.get(0).letter);
+
+        assertEquals(Long.MAX_VALUE, rows.get(1).big);
+        assertEquals(-2000, rows.get(1).score, 0);
+        assertFalse(rows.get(1).ok);
+        assertEquals(0, rows.get(1).letter);
+    }
+
+    @Test
+    public void testSpaces() throws IOException {
+        List<Row> rows = read("age,score,ok,letter\n 20 , 1.5 , true ,  x \n21,2, 1,\u00e9 \n22,3,  ,  \n");
+
+        assertEquals(20, rows.get(0).age);
+        assertEquals(1.5, rows.get(0).score, 0);
+        assertTrue(rows.get(0).ok);
+        assertEquals('x', rows.get(0).letter);
+
+        assertTrue(rows.get(1).ok);
+        assertEquals('\u00e9', rows.get(1).letter);
+
+        assertFalse(rows.get(2).ok);
+        assertEquals(0, rows.get(2).letter);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testOverflow() throws IOException {
+        read("big\n9223372036854775808\n");
+    }
+
+    @Test
+    public void testObjectProperties() throws IOException {
+        List<Row> rows = read("count,name\n5,John\n");
+
+        assertNull(rows.get(0).count);
+        assertEquals("John", rows.get(0).name);
+    }
+
+    @Test
+    public void testParallel() throws IOException {
+        Path file = Files.createTempFile("fastbean", ".csv");
+
+        try {
+            StringBuilder csv = new StringBuilder("age,name\n");
+            long expected = 0;
+
+            for (int i = 0; i < 10000; i++) {
+                csv.append(i).append(",\"name ").append(i).append("\"\n");
+                if (i % 100 == 0) csv.append('\n');
+                expected += i;
+            }
+
+            Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+            List<Row> rows = Collections.synchronizedList(new ArrayList<>());
+
+            // Small chunks make most records fall near a chunk boundary
+            new CsvReader<>(BEAN).readParallel(file, rows::add, 1000);
+
+            long sum = 0;
+
+            for (Row row : rows) {
+                assertEquals("name " + row.age, row.name);
+                sum += row.age;
+            }
+
+            assertEquals(10000, rows.size());
+            assertEquals(expected, sum);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public static class Row {
+        public String name;
+        public int age;
+        public long big;
+        public double score;
+        public boolean ok;
+        public char letter;
+        public Integer count;
+    }
+
+}
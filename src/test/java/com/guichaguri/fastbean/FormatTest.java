@@ -0,0 +1,182 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class FormatTest {
+
+    private static final String FORMATTED = "User{age=20, name=John, password=****, b=3, s=-4, c=x, active=true, "
+            + "score=1.5, count=5, tags=[a, b]}";
+
+    private final Bean<User> bean = FastBean.compile(User.class);
+
+    private static User createUser() {
+        User user = new User();
+        user.setAge(20);
+        user.name = "John";
+        user.password = "secret";
+        user.token = "abc";
+        user.b = 3;
+        user.s = -4;
+        user.c = 'x';
+        user.active = true;
+        user.score = 1.5;
+        user.count = 5L;
+        user.tags = Arrays.asList("a", "b");
+        return user;
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals(FORMATTED, bean.format(createUser()));
+        assertEquals("Empty{}", FastBean.compile(Empty.class).format(new Empty()));
+    }
+
+    @Test
+    public void testTiered() {
+        assertEquals(FORMATTED, FastBean.compileTiered(User.class).format(createUser()));
+    }
+
+    @Test
+    public void testNull() {
+        StringBuilder builder = new StringBuilder("user: ");
+        bean.appendTo(null, builder);
+
+        assertEquals("user: null", builder.toString());
+        assertEquals("null", bean.format(null));
+    }
+
+    @Test
+    public void testResolver() {
+        Bean<User> custom = FastBean.compile(User.class, new INameResolver() {
+            @Override
+            public String getName(Method method, boolean setter) {
+                return null;
+            }
+
+            @Override
+            public String getName(Field field) {
+                // The compiled bean can only access public fields
+                return Modifier.isPublic(field.getModifiers()) ? field.getName() : null;
+            }
+
+            @Override
+            public FormatMode getFormatMode(Member member) {
+                switch (member.getName()) {
+                    case "name": return FormatMode.MASKED;
+                    case "token": return FormatMode.VISIBLE;
+                    case "c": return FormatMode.VISIBLE;
+                    default: return FormatMode.HIDDEN;
+                }
+            }
+        });
+
+        assertEquals("User{name=****, token=abc, c=x}", custom.format(createUser()));
+    }
+
+    @Test
+    public void testAppendable() throws IOException {
+        StringWriter writer = new StringWriter();
+        writer.append('[');
+        bean.appendTo(createUser(), writer);
+        writer.append(']');
+
+        assertEquals("[" + FORMATTED + "]", writer.toString());
+
+        StringBuilder builder = new StringBuilder();
+        bean.appendTo(createUser(), (Appendable) builder);
+
+        assertEquals(FORMATTED, builder.toString());
+    }
+
+    @Test
+    public void testNestedAppendable() throws IOException {
+        StringWriter inner = new StringWriter();
+        StringWriter outer = new StringWriter() {
+            @Override
+            public StringWriter append(CharSequence text) {
+                // Formats again while the outer call still holds the thread's builder
+                try {
+                    bean.appendTo(createUser(), inner);
+                } catch(IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+                return super.append(text);
+            }
+        };
+
+        bean.appendTo(createUser(), outer);
+
+        assertEquals(FORMATTED, outer.toString());
+        assertEquals(FORMATTED, inner.toString());
+    }
+
+    @Test
+    public void testBufferReuse() {
+        StringBuilder first = FormatBuffer.acquire();
+        first.append("leftover");
+
+        // The builder is in use, so a new one is created
+        StringBuilder nested = FormatBuffer.acquire();
+        assertNotSame(first, nested);
+
+        FormatBuffer.release(nested);
+        FormatBuffer.release(first);
+
+        StringBuilder reused = FormatBuffer.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.length());
+        FormatBuffer.release(reused);
+    }
+
+    @Test
+    public void testLargeBuffer() {
+        StringBuilder builder = FormatBuffer.acquire();
+        builder.append(new char[128 * 1024]);
+        FormatBuffer.release(builder);
+
+        // Builders that grew too much are dropped
+        StringBuilder next = FormatBuffer.acquire();
+        assertNotSame(builder, next);
+        FormatBuffer.release(next);
+    }
+
+    public static class User {
+        private int age;
+        public String name;
+        @Format(FormatMode.MASKED)
+        public String password;
+        @Format(FormatMode.HIDDEN)
+        public String token;
+        public byte b;
+        public short s;
+        public char c;
+        public boolean active;
+        public double score;
+        public Long count;
+        public List<String> tags;
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    public static class Empty {
+    }
+
+}
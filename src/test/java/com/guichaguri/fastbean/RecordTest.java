@@ -0,0 +1,114 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class RecordTest {
+
+    private static RecordSchema createSchema() {
+        return new RecordSchema("com.guichaguri.fastbean.test.Person")
+                .add("age", int.class)
+                .add("score", double.class)
+                .add("active", boolean.class)
+                .add("initial", char.class)
+                .add("id", long.class)
+                .add("name", String.class)
+                .add("tags", List.class);
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        Class<?> recordClass = FastBean.defineRecord(createSchema()).create().getClass();
+
+        assertTrue(Modifier.isPublic(recordClass.getModifiers()));
+        assertEquals(7, recordClass.getDeclaredFields().length);
+
+        // Primitive properties are stored unboxed
+        assertEquals(int.class, recordClass.getField("age").getType());
+        assertEquals(double.class, recordClass.getField("score").getType());
+        assertEquals(boolean.class, recordClass.getField("active").getType());
+        assertEquals(char.class, recordClass.getField("initial").getType());
+        assertEquals(long.class, recordClass.getField("id").getType());
+        assertEquals(String.class, recordClass.getField("name").getType());
+        assertEquals(List.class, recordClass.getField("tags").getType());
+
+        for (Field field : recordClass.getDeclaredFields()) {
+            assertTrue(Modifier.isPublic(field.getModifiers()));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Bean<Object> bean = FastBean.defineRecord(createSchema());
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("age", 20);
+        data.put("score", 1.5);
+        data.put("active", true);
+        data.put("initial", 'J');
+        data.put("id", 10L);
+        data.put("name", "John");
+        data.put("tags", Arrays.asList("a", "b"));
+
+        Object record = bean.create();
+        bean.fill(record, data::get);
+
+        Map<String, Object> extracted = new LinkedHashMap<>();
+        bean.extract(bean.copy(record), extracted::put);
+
+        assertEquals(data, extracted);
+        assertEquals(Arrays.asList("age", "score", "active", "initial", "id", "name", "tags"),
+                Arrays.asList(extracted.keySet().toArray()));
+    }
+
+    @Test
+    public void testSameSchema() {
+        Class<?> first = FastBean.defineRecord(createSchema()).create().getClass();
+        Class<?> second = FastBean.defineRecord(createSchema()).create().getClass();
+
+        // The name is already in use, so a number is appended to it
+        assertNotEquals(first, second);
+        assertNotEquals(first.getName(), second.getName());
+        assertTrue(second.getName().startsWith("com.guichaguri.fastbean.test.Person"));
+    }
+
+    @Test
+    public void testEmpty() {
+        Bean<Object> bean = FastBean.defineRecord(new RecordSchema());
+        Object record = bean.create();
+
+        assertEquals(0, record.getClass().getDeclaredFields().length);
+        assertEquals("com.guichaguri.fastbean", record.getClass().getPackage().getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidName() {
+        new RecordSchema().add("1st", int.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyName() {
+        new RecordSchema().add("", int.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateName() {
+        new RecordSchema().add("age", int.class).add("age", long.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVoidType() {
+        new RecordSchema().add("nothing", void.class);
+    }
+
+}
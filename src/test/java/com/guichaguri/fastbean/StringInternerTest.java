@@ -0,0 +1,178 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+
+public class StringInternerTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private static User fill(Bean<User> bean, String status, String country, String name) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", status);
+        data.put("country", country);
+        data.put("name", name);
+
+        User user = bean.create();
+        bean.fill(user, data::get);
+        return user;
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        StringInterner interner = new StringInterner(16);
+        String first = new String("ACTIVE");
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(new String("ACTIVE")));
+        assertSame(first, interner.intern(new String("ACTIVE")));
+        assertNull(interner.intern(null));
+
+        assertEquals(2, interner.getHits());
+        assertEquals(1, interner.getMisses());
+    }
+
+    @Test
+    public void testEviction() {
+        // A single slot is shared by every string
+        StringInterner interner = new StringInterner(1);
+        String first = new String("a");
+
+        interner.intern(first);
+        interner.intern("b");
+
+        assertNotSame(first, interner.intern(new String("a")));
+        assertEquals(0, interner.getHits());
+        assertEquals(3, interner.getMisses());
+    }
+
+    @Test
+    public void testCapacity() {
+        assertEquals(1, new StringInterner(1).getCapacity());
+        assertEquals(16, new StringInterner(16).getCapacity());
+        assertEquals(32, new StringInterner(17).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new StringInterner(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLargeCapacity() {
+        new StringInterner((1 << 30) + 1);
+    }
+
+    @Test
+    public void testAnnotations() {
+        Bean<User> bean = FastBean.compile(User.class);
+
+        User first = fill(bean, new String("ACTIVE"), new String("BR"), new String("John"));
+        User second = fill(bean, new String("ACTIVE"), new String("BR"), new String("John"));
+
+        // Annotated field and setter
+        assertSame(first.status, second.status);
+        assertSame(first.getCountry(), second.getCountry());
+
+        // Not annotated
+        assertNotSame(first.name, second.name);
+
+        Map<String, StringInterner> interners = bean.getInterners();
+
+        assertEquals(2, interners.size());
+        assertEquals(16, interners.get("status").getCapacity());
+        assertEquals(1024, interners.get("country").getCapacity());
+        assertEquals(1, interners.get("status").getHits());
+        assertEquals(1, interners.get("status").getMisses());
+    }
+
+    @Test
+    public void testResolver() {
+        INameResolver resolver = new INameResolver() {
+            @Override
+            public String getName(Method method, boolean setter) {
+                return null;
+            }
+
+            @Override
+            public String getName(Field field) {
+                return field.getName();
+            }
+
+            @Override
+            public int getDeduplicationCapacity(Member member) {
+                return member.getName().equals("name") ? 8 : 0;
+            }
+        };
+
+        Bean<User> bean = FastBean.compile(User.class, resolver);
+        Map<String, StringInterner> interners = bean.getInterners();
+
+        assertEquals(1, interners.size());
+        assertEquals(8, interners.get("name").getCapacity());
+    }
+
+    @Test
+    public void testNoInterners() {
+        assertTrue(FastBean.compile(Plain.class).getInterners().isEmpty());
+    }
+
+    @Test
+    public void testTiered() {
+        TieredBean<User> bean = (TieredBean<User>) FastBean.compileTiered(User.class, null, 4, DIRECT);
+
+        User first = fill(bean, new String("ACTIVE"), new String("BR"), "John");
+        StringInterner status = bean.getInterners().get("status");
+
+        assertFalse(bean.isCompiled());
+        assertEquals(1, status.getMisses());
+
+        // Each round has two calls, the fill of this round reaches the threshold
+        User second = fill(bean, new String("ACTIVE"), new String("BR"), "John");
+
+        // The compiled bean takes over the interners of the reflective bean
+        assertTrue(bean.isCompiled());
+        assertSame(status, bean.getInterners().get("status"));
+
+        User third = fill(bean, new String("ACTIVE"), new String("BR"), "John");
+
+        assertSame(first.status, second.status);
+        assertSame(first.status, third.status);
+        assertSame(first.getCountry(), third.getCountry());
+        assertEquals(2, status.getHits());
+        assertEquals(1, status.getMisses());
+    }
+
+    public static class User {
+        @Deduplicate(capacity = 16)
+        public String status;
+        public String name;
+        private String country;
+
+        public String getCountry() {
+            return country;
+        }
+
+        @Deduplicate
+        public void setCountry(String country) {
+            this.country = country;
+        }
+    }
+
+    public static class Plain {
+        public String name;
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.guichaguri.fastbean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+
+public class TieredBeanTest {
+
+    // Compiles in the calling thread, so the swap happens right when the threshold is reached
+    private static final Executor DIRECT = Runnable::run;
+
+    private static final INameResolver FIELD_RESOLVER = new INameResolver() {
+        @Override
+        public String getName(Method method, boolean setter) {
+            return null;
+        }
+
+        @Override
+        public String getName(Field field) {
+            return field.getName();
+        }
+    };
+
+    private static Map<String, Object> createData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "John");
+        data.put("age", 20);
+        return data;
+    }
+
+    private static <T> void assertFillAndExtract(Bean<T> bean, String name, int age) {
+        Map<String, Object> data = createData();
+        T instance = bean.create();
+
+        bean.fill(instance, data::get);
+
+        Map<String, Object> extracted = new HashMap<>();
+        bean.extract(instance, extracted::put);
+
+        assertEquals(name, extracted.get("name"));
+        assertEquals(age, extracted.get("age"));
+    }
+
+    @Test
+    public void testSwap() {
+        // Each round has three calls: create, fill and extract
+        TieredBean<User> bean = (TieredBean<User>) FastBean.compileTiered(User.class, null, 7, DIRECT);
+
+        for (int i = 0; i < 2; i++) {
+            assertFillAndExtract(bean, "John", 20);
+            assertFalse(bean.isCompiled());
+        }
+
+        // The first call of this round reaches the threshold
+        assertFillAndExtract(bean, "John", 20);
+        assertTrue(bean.isCompiled());
+
+        for (int i = 0; i < 3; i++) {
+            assertFillAndExtract(bean, "John", 20);
+        }
+    }
+
+    @Test
+    public void testImmediateSwap() {
+        TieredBean<User> bean = (TieredBean<User>) FastBean.compileTiered(User.class, null, 0, DIRECT);
+
+        assertTrue(bean.isCompiled());
+        assertFillAndExtract(bean, "John", 20);
+    }
+
+    @Test
+    public void testRejectedCompilation() {
+        TieredBean<User> bean = (TieredBean<User>) FastBean.compileTiered(User.class, null, 1, task -> {
+            throw new RejectedExecutionException();
+        });
+
+        for (int i = 0; i < 5; i++) {
+            assertFillAndExtract(bean, "John", 20);
+        }
+
+        assertFalse(bean.isCompiled());
+        assertNotNull(bean.compiled());
+    }
+
+    @Test
+    public void testFailedCompilation() throws Exception {
+        IllegalStateException cause = new IllegalStateException("Compilation failed");
+        ReflectiveBean<User> reflective = new ReflectiveBean<>(User.class.getConstructor());
+        reflective.addGetter(String.class, "name", User.class.getField("name"), 0);
+        reflective.addSetter(String.class, "name", User.class.getField("name"), FormatMode.VISIBLE);
+
+        TieredBean<User> bean = new TieredBean<>(reflective, () -> {
+            throw cause;
+        }, true, 2, DIRECT);
+
+        for (int i = 0; i < 5; i++) {
+            User user = bean.create();
+            bean.fill(user, createData()::get);
+            assertEquals("John", user.name);
+        }
+
+        assertFalse(bean.isCompiled());
+
+        try {
+            bean.compiled();
+            fail("The compiled bean should not be available");
+        } catch(RuntimeException ex) {
+            assertSame(cause, ex.getCause());
+        }
+    }
+
+    @Test
+    public void testPrivateMembers() {
+        TieredBean<Account> bean = (TieredBean<Account>) FastBean.compileTiered(Account.class, FIELD_RESOLVER, 2, DIRECT);
+
+        // The compiled bean can't access the private fields, so it's never swapped in
+        for (int i = 0; i < 10; i++) {
+            assertFillAndExtract(bean, "John", 20);
+        }
+
+        assertFalse(bean.isCompiled());
+    }
+
+    public static class User {
+        public String name;
+        private int age;
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    public static class Account {
+        private String name;
+        private int age;
+    }
+
+}